@@ -0,0 +1,137 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.clouds;
+
+import org.joml.Vector2ic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.registry.CoreRegistry;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.engine.world.chunks.internal.ChunkImpl;
+import org.terasology.engine.world.generation.Border3D;
+import org.terasology.engine.world.generation.Region;
+import org.terasology.engine.world.generation.WorldFacet;
+import org.terasology.weatherManager.fakes.FakeBlockManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cloud layer: single noise lookups, filling a chunk sized {@link CloudFacet} and rasterizing it.
+ * <p>
+ * {@link #generateChunk(Blackhole)} alternates between a facet and its complement, so that every column of the cloud
+ * layer changes on each call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloudBenchmark {
+
+    private static final int CLOUD_HEIGHT = 127;
+
+    private CloudProvider cloudProvider;
+    private CloudRasterizer cloudRasterizer;
+    private CloudFacet facet;
+    private Chunk chunk;
+    private Region region;
+    private Region inverseRegion;
+    private boolean inverse;
+    private float anim;
+
+    @Setup
+    public void setup() {
+        FakeBlockManager blockManager = new FakeBlockManager();
+        blockManager.register("WeatherManager:Cloud", new Block());
+
+        Context context = new ContextImpl();
+        context.put(BlockManager.class, blockManager);
+        CoreRegistry.setContext(context);
+
+        cloudProvider = new CloudProvider();
+        cloudProvider.setSeed(12354);
+
+        cloudRasterizer = new CloudRasterizer();
+        cloudRasterizer.initialize();
+
+        BlockRegion chunkRegion = new BlockRegion(0, 0, 0).setSize(Chunks.SIZE_X, Chunks.SIZE_Y, Chunks.SIZE_Z);
+        facet = new CloudFacet(CLOUD_HEIGHT, chunkRegion, new Border3D(0, 0, 0));
+        for (Vector2ic pos : facet.getRelativeArea()) {
+            facet.set(pos, cloudProvider.isClouded(pos.x(), pos.y(), 0));
+        }
+
+        CloudFacet inverseFacet = new CloudFacet(CLOUD_HEIGHT, chunkRegion, new Border3D(0, 0, 0));
+        for (Vector2ic pos : inverseFacet.getRelativeArea()) {
+            inverseFacet.set(pos, !facet.get(pos));
+        }
+
+        chunk = new ChunkImpl(0, CLOUD_HEIGHT / Chunks.SIZE_Y, 0, blockManager, new ExtraBlockDataManager());
+        region = new FacetRegion(chunk.getRegion(), facet);
+        inverseRegion = new FacetRegion(chunk.getRegion(), inverseFacet);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean isClouded() {
+        anim += 0.01f;
+        return cloudProvider.isClouded(17, 42, anim);
+    }
+
+    @Benchmark
+    public void fillFacet(Blackhole blackhole) {
+        anim += 0.01f;
+        for (Vector2ic pos : facet.getRelativeArea()) {
+            facet.set(pos, cloudProvider.isClouded(pos.x(), pos.y(), anim));
+        }
+        blackhole.consume(facet);
+    }
+
+    @Benchmark
+    public void generateChunk(Blackhole blackhole) {
+        inverse = !inverse;
+        cloudRasterizer.generateChunk(chunk, inverse ? inverseRegion : region);
+        blackhole.consume(chunk);
+    }
+
+    /**
+     * {@link Region} that only provides a single cloud facet.
+     */
+    private static final class FacetRegion implements Region {
+
+        private final BlockRegionc region;
+        private final CloudFacet facet;
+
+        FacetRegion(BlockRegionc region, CloudFacet facet) {
+            this.region = region;
+            this.facet = facet;
+        }
+
+        @Override
+        public <T extends WorldFacet> T getFacet(Class<T> dataType) {
+            return dataType == CloudFacet.class ? dataType.cast(facet) : null;
+        }
+
+        @Override
+        public BlockRegionc getRegion() {
+            return region;
+        }
+    }
+}
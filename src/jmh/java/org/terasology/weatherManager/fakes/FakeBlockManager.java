@@ -0,0 +1,104 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.fakes;
+
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockUri;
+import org.terasology.engine.world.block.family.BlockFamily;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link BlockManager} that holds a few registered blocks in an array, indexed by their id. Block families are not
+ * supported.
+ */
+public class FakeBlockManager extends BlockManager {
+
+    private final List<Block> blocks = new ArrayList<>();
+    private final Map<String, Block> blocksByUri = new HashMap<>();
+
+    /**
+     * Creates a block manager in which only air is registered, with id 0.
+     */
+    public FakeBlockManager() {
+        Block air = new Block();
+        air.setPenetrable(true);
+        register(AIR_ID.toString(), air);
+    }
+
+    /**
+     * Registers a block and gives it the next free id.
+     *
+     * @param uri the uri under which the block can be looked up
+     * @param block the block
+     * @return block
+     */
+    public Block register(String uri, Block block) {
+        block.setId((short) blocks.size());
+        blocks.add(block);
+        blocksByUri.put(uri.toLowerCase(), block);
+        return block;
+    }
+
+    public Block getAir() {
+        return blocks.get(0);
+    }
+
+    @Override
+    public Map<String, Short> getBlockIdMap() {
+        Map<String, Short> ids = new HashMap<>();
+        blocksByUri.forEach((uri, block) -> ids.put(uri, block.getId()));
+        return ids;
+    }
+
+    @Override
+    public BlockFamily getBlockFamily(String uri) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BlockFamily getBlockFamily(BlockUri uri) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Block getBlock(String uri) {
+        return blocksByUri.get(uri.toLowerCase());
+    }
+
+    @Override
+    public Block getBlock(BlockUri uri) {
+        return getBlock(uri.toString());
+    }
+
+    @Override
+    public Block getBlock(short id) {
+        return blocks.get(id);
+    }
+
+    @Override
+    public Collection<BlockUri> listRegisteredBlockUris() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Collection<BlockFamily> listRegisteredBlockFamilies() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public int getBlockFamilyCount() {
+        return 0;
+    }
+
+    @Override
+    public Collection<Block> listRegisteredBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+}
@@ -0,0 +1,243 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.fakes;
+
+import org.joml.Vector3fc;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.world.WorldChangeListener;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.internal.ChunkViewCore;
+import org.terasology.engine.world.internal.WorldInfo;
+import org.terasology.engine.world.time.WorldTime;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link WorldProvider} that holds the blocks of a fixed box in an array. Blocks outside of the box are air, and every
+ * block is fully lit by the sun. Extra data, light propagation and chunk views are not supported.
+ */
+public class FakeWorldProvider implements WorldProvider {
+
+    private final BlockRegion region;
+    private final Block air;
+    private final Block[] blocks;
+
+    /**
+     * @param region the box that holds blocks
+     * @param air the block outside of the box, which the box is filled with initially
+     */
+    public FakeWorldProvider(BlockRegion region, Block air) {
+        this.region = region;
+        this.air = air;
+        this.blocks = new Block[region.getSizeX() * region.getSizeY() * region.getSizeZ()];
+        Arrays.fill(blocks, air);
+    }
+
+    private int index(int x, int y, int z) {
+        if (!region.contains(x, y, z)) {
+            return -1;
+        }
+        return (x - region.minX()) + region.getSizeX() * ((z - region.minZ()) + region.getSizeZ() * (y - region.minY()));
+    }
+
+    @Override
+    public Block getBlock(int x, int y, int z) {
+        int i = index(x, y, z);
+        return i >= 0 ? blocks[i] : air;
+    }
+
+    @Override
+    public Block getBlock(Vector3ic pos) {
+        return getBlock(pos.x(), pos.y(), pos.z());
+    }
+
+    @Override
+    public Block getBlock(Vector3fc pos) {
+        return getBlock(Math.round(pos.x()), Math.round(pos.y()), Math.round(pos.z()));
+    }
+
+    @Override
+    public Block setBlock(Vector3ic pos, Block type) {
+        int i = index(pos.x(), pos.y(), pos.z());
+        if (i < 0) {
+            return null;
+        }
+        Block old = blocks[i];
+        blocks[i] = type;
+        return old;
+    }
+
+    @Override
+    public Map<Vector3ic, Block> setBlocks(Map<? extends Vector3ic, Block> changes) {
+        Map<Vector3ic, Block> old = new HashMap<>();
+        for (Map.Entry<? extends Vector3ic, Block> entry : changes.entrySet()) {
+            old.put(entry.getKey(), setBlock(entry.getKey(), entry.getValue()));
+        }
+        return old;
+    }
+
+    @Override
+    public boolean isBlockRelevant(int x, int y, int z) {
+        return region.contains(x, y, z);
+    }
+
+    @Override
+    public boolean isBlockRelevant(Vector3ic pos) {
+        return isBlockRelevant(pos.x(), pos.y(), pos.z());
+    }
+
+    @Override
+    public boolean isBlockRelevant(Vector3fc pos) {
+        return isBlockRelevant(Math.round(pos.x()), Math.round(pos.y()), Math.round(pos.z()));
+    }
+
+    @Override
+    public boolean isRegionRelevant(BlockRegionc other) {
+        return region.contains(other);
+    }
+
+    @Override
+    public Collection<BlockRegionc> getRelevantRegions() {
+        return Collections.singletonList(region);
+    }
+
+    @Override
+    public byte getSunlight(int x, int y, int z) {
+        return Chunks.MAX_SUNLIGHT;
+    }
+
+    @Override
+    public byte getSunlight(Vector3ic pos) {
+        return Chunks.MAX_SUNLIGHT;
+    }
+
+    @Override
+    public byte getSunlight(Vector3fc pos) {
+        return Chunks.MAX_SUNLIGHT;
+    }
+
+    @Override
+    public byte getLight(int x, int y, int z) {
+        return 0;
+    }
+
+    @Override
+    public byte getLight(Vector3ic pos) {
+        return 0;
+    }
+
+    @Override
+    public byte getLight(Vector3fc pos) {
+        return 0;
+    }
+
+    @Override
+    public byte getTotalLight(int x, int y, int z) {
+        return Chunks.MAX_SUNLIGHT;
+    }
+
+    @Override
+    public byte getTotalLight(Vector3ic pos) {
+        return Chunks.MAX_SUNLIGHT;
+    }
+
+    @Override
+    public byte getTotalLight(Vector3fc pos) {
+        return Chunks.MAX_SUNLIGHT;
+    }
+
+    @Override
+    public int getExtraData(int index, int x, int y, int z) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getExtraData(int index, Vector3ic pos) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getExtraData(String fieldName, int x, int y, int z) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getExtraData(String fieldName, Vector3ic pos) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int setExtraData(int index, Vector3ic pos, int value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int setExtraData(String fieldName, Vector3ic pos, int value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public EntityRef getWorldEntity() {
+        return EntityRef.NULL;
+    }
+
+    @Override
+    public String getTitle() {
+        return "fake";
+    }
+
+    @Override
+    public String getSeed() {
+        return "fake";
+    }
+
+    @Override
+    public WorldInfo getWorldInfo() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void processPropagation() {
+    }
+
+    @Override
+    public void registerListener(WorldChangeListener listener) {
+    }
+
+    @Override
+    public void unregisterListener(WorldChangeListener listener) {
+    }
+
+    @Override
+    public ChunkViewCore getLocalView(Vector3ic chunkPos) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ChunkViewCore getWorldViewAround(Vector3ic chunk) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ChunkViewCore getWorldViewAround(BlockRegionc chunk) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public WorldTime getTime() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -0,0 +1,84 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.systems;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.registry.InjectionHelper;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.weatherManager.fakes.FakeBlockManager;
+import org.terasology.weatherManager.fakes.FakeWorldProvider;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BlockPlacingWeatherSystem#findSpot(Block, int, int, int)} against an array-backed world with flat
+ * ground.
+ * The offset between the start height and the ground determines how many blocks have to be scanned.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindSpotBenchmark {
+
+    private static final int GROUND_HEIGHT = 64;
+    private static final int WORLD_HEIGHT = 128;
+
+    @Param({"0", "20", "39"})
+    public int groundOffset;
+
+    private BlockPlacingWeatherSystem system;
+    private Block air;
+
+    @Setup
+    public void setup() {
+        FakeBlockManager blockManager = new FakeBlockManager();
+        air = blockManager.getAir();
+        Block stone = new Block();
+        stone.setAttachmentAllowed(true);
+        blockManager.register("engine:stone", stone);
+        blockManager.register("WeatherManager:snow", new Block());
+        blockManager.register("CoreAssets:water", new Block());
+
+        FakeWorldProvider worldProvider = new FakeWorldProvider(new BlockRegion(0, 0, 0, 7, WORLD_HEIGHT - 1, 7), air);
+        for (Vector3ic pos : new BlockRegion(0, 0, 0, 7, GROUND_HEIGHT - 1, 7)) {
+            worldProvider.setBlock(pos, stone);
+        }
+
+        Context context = new ContextImpl();
+        context.put(Context.class, context);
+        context.put(WorldProvider.class, worldProvider);
+        context.put(BlockManager.class, blockManager);
+        context.put(WeatherMetricsSystem.class, new WeatherMetricsSystem());
+        context.put(WeatherManagerSystem.class, new WeatherManagerSystem());
+
+        system = new BlockPlacingWeatherSystem();
+        InjectionHelper.inject(system, context);
+        system.postBegin();
+    }
+
+    @Benchmark
+    public Vector3i findSpot() {
+        return system.findSpot(air, 3, 5, GROUND_HEIGHT + groundOffset);
+    }
+}
@@ -0,0 +1,66 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.systems;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.terasology.weatherManager.weather.ConditionAndDuration;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of generating weather conditions with {@link MarkovChainWeatherGenerator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherGeneratorBenchmark {
+
+    private static final int CHECKPOINT_INTERVAL = 64;
+
+    private MarkovChainWeatherGenerator sequential;
+    private MarkovChainWeatherGenerator seekable;
+    private final MutableWeatherCondition sink = new MutableWeatherCondition();
+    private long seekTarget;
+
+    @Setup
+    public void setup() {
+        sequential = new MarkovChainWeatherGenerator(12354, 2500f);
+        seekable = new MarkovChainWeatherGenerator(12354, 2500f, CHECKPOINT_INTERVAL);
+    }
+
+    @Benchmark
+    public ConditionAndDuration getNext() {
+        return sequential.getNext();
+    }
+
+    @Benchmark
+    public MutableWeatherCondition getNextIntoSink() {
+        return sequential.getNext(sink);
+    }
+
+    @Benchmark
+    public MutableWeatherCondition getNextSeekable() {
+        return seekable.getNext(sink);
+    }
+
+    @Benchmark
+    public MutableWeatherCondition seek() {
+        // jump far ahead, so that every call has to derive a new checkpoint
+        seekTarget += 1_000_003;
+        seekable.seek(seekTarget);
+        return seekable.getNext(sink);
+    }
+}
@@ -12,6 +12,8 @@ import org.terasology.engine.world.generation.FacetProviderPlugin;
 import org.terasology.engine.world.generation.GeneratingRegion;
 import org.terasology.engine.world.generation.Produces;
 import org.terasology.engine.world.generator.plugin.RegisterPlugin;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
+import org.terasology.weatherManager.systems.RegionalWeatherSystem;
 
 /**
  * A facet provider for a single layer of clouds
@@ -42,19 +44,50 @@ public class CloudProvider implements FacetProviderPlugin {
 
         float anim = cloudManager.getAnimFrame();
 
-        for (Vector2ic pos: facet.getRelativeArea()) {
-            if (isClouded(pos.x(), pos.y(), anim)) {
-                facet.setWorld(pos, true);
+        // each column is clouded according to the coverage of its weather cell, which changes rarely between columns
+        long columns = 0;
+        long lastKey = 0;
+        float coverage = -1;
+        float threshold = 0;
+        for (Vector2ic pos: facet.getWorldArea()) {
+            long key = RegionalWeatherSystem.getCellKey(pos.x(), pos.y());
+            if (coverage < 0 || key != lastKey) {
+                lastKey = key;
+                coverage = cloudManager.getCoverage(pos.x(), pos.y());
+                threshold = cloudManager.getCoverageThreshold(pos.x(), pos.y());
             }
+            // under a clear sky, the column stays empty
+            if (coverage > 0) {
+                columns++;
+                if (isClouded(pos.x(), pos.y(), anim, threshold)) {
+                    facet.setWorld(pos, true);
+                }
+            }
+        }
+
+        WeatherMetricsSystem metricsSystem = CoreRegistry.get(WeatherMetricsSystem.class);
+        if (metricsSystem != null && columns > 0) {
+            metricsSystem.getMetrics().counter("clouds.noiseCalls").add(columns);
         }
 
         region.setRegionFacet(CloudFacet.class, facet);
     }
 
     public boolean isClouded(int wx, int wz, float anim) {
+        return isClouded(wx, wz, anim, 0);
+    }
+
+    /**
+     * @param wx the world x coordinate
+     * @param wz the world z coordinate
+     * @param anim the animation frame
+     * @param threshold the noise threshold, higher values result in more clouds
+     * @return true if the column is clouded
+     */
+    public boolean isClouded(int wx, int wz, float anim, float threshold) {
         float nx = wx * 0.01f;
         float nz = wz * 0.01f;
-        return (noise.noise(nx, anim, nz) < 0);
+        return (noise.noise(nx, anim, nz) < threshold);
     }
 
 }
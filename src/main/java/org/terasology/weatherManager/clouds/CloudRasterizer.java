@@ -21,12 +21,14 @@ public class CloudRasterizer implements WorldRasterizerPlugin {
     //@In // Commented out in favor of the CoreRegistry usage below, which works fine
     BlockManager blockManager;
 
+    private Block airBlock;
     private Block cloudBlock;
 
     @Override
     public void initialize() {
         // TODO: Remove / harden initialization when somebody has time to clean this up
         blockManager = CoreRegistry.get(BlockManager.class);
+        airBlock = blockManager.getBlock(BlockManager.AIR_ID);
         cloudBlock = blockManager.getBlock("WeatherManager:Cloud");
     }
 
@@ -48,7 +50,7 @@ public class CloudRasterizer implements WorldRasterizerPlugin {
                     Block oldBlock = chunk.getBlock(x, relHeight, z);
                     Block block = getBlock(isClouded, oldBlock);
                     if (!block.equals(oldBlock)) {
-                        chunk.setBlock(x, relHeight, z, cloudBlock);
+                        chunk.setBlock(x, relHeight, z, block);
                     }
                 }
             }
@@ -62,12 +64,12 @@ public class CloudRasterizer implements WorldRasterizerPlugin {
      */
     public Block getBlock(boolean isClouded, Block oldBlock) {
 
-        if (isClouded && oldBlock.equals(blockManager.getBlock(BlockManager.AIR_ID))) {
+        if (isClouded && oldBlock.equals(airBlock)) {
             return cloudBlock;
         }
 
         if (!isClouded && oldBlock.equals(cloudBlock)) {
-            return blockManager.getBlock(BlockManager.AIR_ID);
+            return airBlock;
         }
 
         return oldBlock;
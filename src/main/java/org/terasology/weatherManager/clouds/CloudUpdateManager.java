@@ -17,57 +17,180 @@ import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockRegionc;
 import org.terasology.engine.world.time.WorldTimeEvent;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
-
+import org.terasology.weatherManager.components.WeatherManagerConfigComponent;
+import org.terasology.weatherManager.metrics.WeatherMetrics;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
+import org.terasology.weatherManager.systems.RegionalWeatherSystem;
+import org.terasology.weatherManager.systems.WeatherManagerSystem;
+import org.terasology.weatherManager.weather.ContinuousWeatherState;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Updates the cloud layer in the relevant regions. The coverage follows the weather of the cells of
+ * {@link RegionalWeatherSystem}, so each part of a region is updated with the coverage of the cell it lies in.
+ */
 @RegisterSystem(RegisterMode.AUTHORITY)
 @Share(CloudUpdateManager.class)
 public class CloudUpdateManager extends BaseComponentSystem {
 
     private static final Logger logger = LoggerFactory.getLogger(CloudUpdateManager.class);
 
-    private final int height = 127;
+    private int height = new WeatherManagerConfigComponent().cloudHeight;
 
     @In
     private WorldProvider worldProvider;
 
+    @In
+    private WeatherManagerSystem weatherManagerSystem;
+
+    @In
+    private WeatherMetricsSystem metricsSystem;
+
+    private WeatherMetrics.Counter columnsEvaluated;
+    private WeatherMetrics.Counter noiseCalls;
+    private WeatherMetrics.Counter blocksWritten;
+    private WeatherMetrics.Counter skippedUpdates;
+    private WeatherMetrics.Timer updateTimer;
+
+    private final ContinuousWeatherState weatherState = new ContinuousWeatherState();
+
     private CloudProvider cloudProvider = new CloudProvider();
     private CloudRasterizer cloudRasterizer = new CloudRasterizer();
 
     private float anim;
 
+    // the coverage of each weather cell at the last update, by cell key - replaced as a whole, since the world generator
+    // reads it from other threads through CloudProvider
+    private volatile Map<Long, Float> coverages = Collections.emptyMap();
+
     @Override
     public void preBegin() {
         String seed = worldProvider.getSeed();
         cloudProvider.setSeed(seed.hashCode());
         cloudRasterizer.initialize();
+
+        WeatherMetrics metrics = metricsSystem.getMetrics();
+        columnsEvaluated = metrics.counter("clouds.columnsEvaluated");
+        noiseCalls = metrics.counter("clouds.noiseCalls");
+        blocksWritten = metrics.counter("clouds.blocksWritten");
+        skippedUpdates = metrics.counter("clouds.skippedUpdates");
+        updateTimer = metrics.timer("clouds.update");
     }
 
     @ReceiveEvent
     public void onTimeEvent(WorldTimeEvent event, EntityRef worldEntity) {
+        WeatherManagerConfigComponent config = weatherManagerSystem.getConfig();
+        if (config.cloudHeight != height) {
+            moveLayer(config.cloudHeight);
+        }
 
         logger.debug("Cloud layer update started...");
+        long start = updateTimer.start();
 
+        Map<Long, Float> previousCoverages = coverages;
+        Map<Long, Float> nextCoverages = new HashMap<>();
         int cnt = 0;
+        long columns = 0;
+        long writes = 0;
         for (BlockRegionc reg : worldProvider.getRelevantRegions()) {
             if (reg.minY() <= height && height <= reg.maxY()) {
-                for (int z = reg.minZ(); z <= reg.maxZ(); z++) {
-                    for (int x = reg.minX(); x <= reg.maxX(); x++) {
-                        boolean isClouded = cloudProvider.isClouded(x, z, anim);
-                        Block oldBlock = worldProvider.getBlock(x, height, z);
-                        Block block = cloudRasterizer.getBlock(isClouded, oldBlock);
-                        if (!block.equals(oldBlock)) {
-                            worldProvider.setBlock(new Vector3i(x, height, z), block);
+                // split the region along the cell borders
+                int cellSize = RegionalWeatherSystem.CELL_SIZE;
+                int firstCellX = Math.floorDiv(reg.minX(), cellSize);
+                int lastCellX = Math.floorDiv(reg.maxX(), cellSize);
+                int lastCellZ = Math.floorDiv(reg.maxZ(), cellSize);
+                for (int cellZ = Math.floorDiv(reg.minZ(), cellSize); cellZ <= lastCellZ; cellZ++) {
+                    for (int cellX = firstCellX; cellX <= lastCellX; cellX++) {
+                        int minX = Math.max(reg.minX(), cellX * cellSize);
+                        int maxX = Math.min(reg.maxX(), cellX * cellSize + cellSize - 1);
+                        int minZ = Math.max(reg.minZ(), cellZ * cellSize);
+                        int maxZ = Math.min(reg.maxZ(), cellZ * cellSize + cellSize - 1);
+
+                        long key = RegionalWeatherSystem.getCellKey(minX, minZ);
+                        Float coverage = nextCoverages.get(key);
+                        if (coverage == null) {
+                            weatherManagerSystem.getWeatherState(minX, minZ, weatherState);
+                            coverage = Math.max(0, weatherState.cloudCover);
+                            nextCoverages.put(key, coverage);
                         }
+                        if (coverage == 0 && Float.valueOf(0).equals(previousCoverages.get(key))) {
+                            // clear sky and this part has already been cleared - nothing to do
+                            skippedUpdates.increment();
+                            continue;
+                        }
+
+                        writes += updateArea(minX, maxX, minZ, maxZ, toThreshold(coverage));
+                        columns += (long) (maxX - minX + 1) * (maxZ - minZ + 1);
                     }
                 }
                 cnt++;
             }
         }
+        coverages = nextCoverages;
+
+        anim += config.cloudAnimationStep;
 
-        anim += 0.01;
+        columnsEvaluated.add(columns);
+        noiseCalls.add(columns);
+        blocksWritten.add(writes);
+        updateTimer.stop(start);
 
         logger.debug("Cloud layer updated - {} chunks", cnt);
     }
 
+    /**
+     * @return the number of blocks that changed
+     */
+    private long updateArea(int minX, int maxX, int minZ, int maxZ, float threshold) {
+        long writes = 0;
+        for (int z = minZ; z <= maxZ; z++) {
+            for (int x = minX; x <= maxX; x++) {
+                boolean isClouded = cloudProvider.isClouded(x, z, anim, threshold);
+                if (updateBlock(x, height, z, isClouded)) {
+                    writes++;
+                }
+            }
+        }
+        return writes;
+    }
+
+    /**
+     * Removes the clouds from the current layer and forces a full update at the new height.
+     *
+     * @param newHeight the new height of the cloud layer
+     */
+    private void moveLayer(int newHeight) {
+        long writes = 0;
+        for (BlockRegionc reg : worldProvider.getRelevantRegions()) {
+            if (reg.minY() <= height && height <= reg.maxY()) {
+                for (int z = reg.minZ(); z <= reg.maxZ(); z++) {
+                    for (int x = reg.minX(); x <= reg.maxX(); x++) {
+                        if (updateBlock(x, height, z, false)) {
+                            writes++;
+                        }
+                    }
+                }
+            }
+        }
+        blocksWritten.add(writes);
+        logger.info("Cloud layer moved from height {} to {}", height, newHeight);
+        height = newHeight;
+        coverages = Collections.emptyMap();
+    }
+
+    private boolean updateBlock(int x, int y, int z, boolean isClouded) {
+        Block oldBlock = worldProvider.getBlock(x, y, z);
+        Block block = cloudRasterizer.getBlock(isClouded, oldBlock);
+        if (block.equals(oldBlock)) {
+            return false;
+        }
+        worldProvider.setBlock(new Vector3i(x, y, z), block);
+        return true;
+    }
+
     /**
      * @return current animation frame (cloud noise)
      */
@@ -75,6 +198,31 @@ public class CloudUpdateManager extends BaseComponentSystem {
         return anim;
     }
 
+    /**
+     * @param x the world x coordinate
+     * @param z the world z coordinate
+     * @return the cloud coverage of the cell that contains the column at the last update, from 0 (clear sky) to 1 (fully
+     *         covered)
+     */
+    public float getCoverage(int x, int z) {
+        Float coverage = coverages.get(RegionalWeatherSystem.getCellKey(x, z));
+        return coverage != null ? coverage : 0;
+    }
+
+    /**
+     * @param x the world x coordinate
+     * @param z the world z coordinate
+     * @return the noise threshold below which the column is clouded for its current coverage
+     */
+    public float getCoverageThreshold(int x, int z) {
+        return toThreshold(getCoverage(x, z));
+    }
+
+    private static float toThreshold(float coverage) {
+        // the cloud noise is roughly in [-1, 1], so a coverage of 0.5 corresponds to a threshold of 0
+        return coverage * 2 - 1;
+    }
+
     /**
      * @return the height of the cloud layer
      */
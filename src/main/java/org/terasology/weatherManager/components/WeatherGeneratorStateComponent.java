@@ -0,0 +1,38 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.components;
+
+import org.terasology.gestalt.entitysystem.component.Component;
+
+/**
+ * Persisted state of the weather generator and the current weather, stored on the {@link WeatherBase} entity.
+ * <p>
+ * The generator state consists of its seed, the index of the next condition and the packed history of its Markov chains,
+ * which is enough to continue the exact same sequence after loading a world.
+ */
+public class WeatherGeneratorStateComponent implements Component<WeatherGeneratorStateComponent> {
+
+    public long seed;
+    public long index;
+    public int chainState;
+
+    /**
+     * The current condition, packed with {@link org.terasology.weatherManager.weather.PackedWeatherCondition}.
+     */
+    public long currentCondition;
+
+    /**
+     * Whether the current condition was set by a command and overrides the weather of the cells until it ends.
+     */
+    public boolean overridden;
+
+    @Override
+    public void copyFrom(WeatherGeneratorStateComponent other) {
+        this.seed = other.seed;
+        this.index = other.index;
+        this.chainState = other.chainState;
+        this.currentCondition = other.currentCondition;
+        this.overridden = other.overridden;
+    }
+}
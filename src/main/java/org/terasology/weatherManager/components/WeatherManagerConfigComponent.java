@@ -0,0 +1,202 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.components;
+
+import com.google.common.base.Preconditions;
+import org.terasology.engine.network.Replicate;
+import org.terasology.engine.world.time.WorldTime;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+/**
+ * Settings of the weather module, stored on the {@link WeatherBase} entity and replicated to the clients.
+ * <p>
+ * The systems take over changes to this component immediately, so the settings can be tuned on a running server, e.g.
+ * with the {@code setWeatherConfig} command.
+ */
+public class WeatherManagerConfigComponent implements Component<WeatherManagerConfigComponent> {
+
+    /**
+     * Distance in blocks around a player within which snow and water are placed and removed.
+     */
+    @Replicate
+    public int snowBlockRange = 40;
+
+    /**
+     * Number of particle emitters around the local player while there is downfall. Used by the clients only.
+     */
+    @Replicate
+    public int particleEmittersCount = 500;
+
+    /**
+     * Height of the cloud layer.
+     */
+    @Replicate
+    public int cloudHeight = 127;
+
+    /**
+     * Advance of the cloud animation per world time event.
+     */
+    @Replicate
+    public float cloudAnimationStep = 0.01f;
+
+    /**
+     * Whether the weather generator is seeded from the world seed, or from {@link #seed}.
+     */
+    @Replicate
+    public boolean useWorldSeed = true;
+
+    @Replicate
+    public long seed = 12354;
+
+    /**
+     * Mean duration of a weather condition in milliseconds.
+     */
+    @Replicate
+    public float meanDuration = WorldTime.DAY_LENGTH / 480.0f;
+
+    // initial delays and periods in milliseconds of the periodic block placing actions
+    @Replicate
+    public long placeSnowDelay = 200;
+    @Replicate
+    public long placeSnowPeriod = 400;
+    @Replicate
+    public long meltSnowDelay = 150;
+    @Replicate
+    public long meltSnowPeriod = 300;
+    @Replicate
+    public long evaporateWaterDelay = 150;
+    @Replicate
+    public long evaporateWaterPeriod = 300;
+    @Replicate
+    public long rainPeriod = 1000;
+
+    /**
+     * Whether the clients generate the weather of their cell themselves, see {@link WeatherPredictionComponent}, instead of
+     * receiving every change of the {@link WeatherStateComponent}.
+     */
+    @Replicate
+    public boolean predictWeather;
+
+    /**
+     * @param worldSeed the seed of the world
+     * @return the seed of the weather generators, which the regional cells derive their seeds from as well
+     */
+    public long generatorSeed(String worldSeed) {
+        return useWorldSeed ? worldSeed.hashCode() : seed;
+    }
+
+    /**
+     * Changes a single setting, without validating it.
+     *
+     * @param setting the name of the field
+     * @param value the new value as text
+     * @throws IllegalArgumentException if there is no such setting or the value cannot be parsed
+     */
+    public void set(String setting, String value) {
+        switch (setting) {
+            case "snowBlockRange":
+                snowBlockRange = Integer.parseInt(value);
+                break;
+            case "particleEmittersCount":
+                particleEmittersCount = Integer.parseInt(value);
+                break;
+            case "cloudHeight":
+                cloudHeight = Integer.parseInt(value);
+                break;
+            case "cloudAnimationStep":
+                cloudAnimationStep = Float.parseFloat(value);
+                break;
+            case "useWorldSeed":
+                useWorldSeed = Boolean.parseBoolean(value);
+                break;
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+            case "meanDuration":
+                meanDuration = Float.parseFloat(value);
+                break;
+            case "placeSnowDelay":
+                placeSnowDelay = Long.parseLong(value);
+                break;
+            case "placeSnowPeriod":
+                placeSnowPeriod = Long.parseLong(value);
+                break;
+            case "meltSnowDelay":
+                meltSnowDelay = Long.parseLong(value);
+                break;
+            case "meltSnowPeriod":
+                meltSnowPeriod = Long.parseLong(value);
+                break;
+            case "evaporateWaterDelay":
+                evaporateWaterDelay = Long.parseLong(value);
+                break;
+            case "evaporateWaterPeriod":
+                evaporateWaterPeriod = Long.parseLong(value);
+                break;
+            case "rainPeriod":
+                rainPeriod = Long.parseLong(value);
+                break;
+            case "predictWeather":
+                predictWeather = Boolean.parseBoolean(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown weather setting: " + setting);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if any setting is out of range
+     */
+    public void validate() {
+        Preconditions.checkArgument(snowBlockRange > 0 && snowBlockRange <= 256, "snowBlockRange must be in [1, 256]");
+        Preconditions.checkArgument(particleEmittersCount >= 0 && particleEmittersCount <= 5000,
+                "particleEmittersCount must be in [0, 5000]");
+        Preconditions.checkArgument(cloudHeight > 0, "cloudHeight must be positive");
+        Preconditions.checkArgument(cloudAnimationStep >= 0 && cloudAnimationStep <= 1, "cloudAnimationStep must be in [0, 1]");
+        Preconditions.checkArgument(meanDuration >= 100 && meanDuration <= WorldTime.DAY_LENGTH * 10f,
+                "meanDuration must be in [100, %s]", WorldTime.DAY_LENGTH * 10);
+        Preconditions.checkArgument(placeSnowDelay >= 0 && meltSnowDelay >= 0 && evaporateWaterDelay >= 0,
+                "delays must not be negative");
+        Preconditions.checkArgument(placeSnowPeriod >= 50 && meltSnowPeriod >= 50 && evaporateWaterPeriod >= 50 && rainPeriod >= 50,
+                "periods must be at least 50 ms");
+    }
+
+    @Override
+    public String toString() {
+        return "snowBlockRange = " + snowBlockRange + '\n'
+                + "particleEmittersCount = " + particleEmittersCount + '\n'
+                + "cloudHeight = " + cloudHeight + '\n'
+                + "cloudAnimationStep = " + cloudAnimationStep + '\n'
+                + "useWorldSeed = " + useWorldSeed + '\n'
+                + "seed = " + seed + '\n'
+                + "meanDuration = " + meanDuration + '\n'
+                + "placeSnowDelay = " + placeSnowDelay + '\n'
+                + "placeSnowPeriod = " + placeSnowPeriod + '\n'
+                + "meltSnowDelay = " + meltSnowDelay + '\n'
+                + "meltSnowPeriod = " + meltSnowPeriod + '\n'
+                + "evaporateWaterDelay = " + evaporateWaterDelay + '\n'
+                + "evaporateWaterPeriod = " + evaporateWaterPeriod + '\n'
+                + "rainPeriod = " + rainPeriod + '\n'
+                + "predictWeather = " + predictWeather;
+    }
+
+    @Override
+    public void copyFrom(WeatherManagerConfigComponent other) {
+        this.snowBlockRange = other.snowBlockRange;
+        this.particleEmittersCount = other.particleEmittersCount;
+        this.cloudHeight = other.cloudHeight;
+        this.cloudAnimationStep = other.cloudAnimationStep;
+        this.useWorldSeed = other.useWorldSeed;
+        this.seed = other.seed;
+        this.meanDuration = other.meanDuration;
+        this.placeSnowDelay = other.placeSnowDelay;
+        this.placeSnowPeriod = other.placeSnowPeriod;
+        this.meltSnowDelay = other.meltSnowDelay;
+        this.meltSnowPeriod = other.meltSnowPeriod;
+        this.evaporateWaterDelay = other.evaporateWaterDelay;
+        this.evaporateWaterPeriod = other.evaporateWaterPeriod;
+        this.rainPeriod = other.rainPeriod;
+        this.predictWeather = other.predictWeather;
+    }
+}
@@ -0,0 +1,66 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.components;
+
+import org.terasology.engine.network.Replicate;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+/**
+ * The weather cell a player is in, replicated to the player on its client entity when weather prediction is enabled.
+ * <p>
+ * Since the weather of a cell only depends on its seed and the world time, see
+ * {@link org.terasology.weatherManager.weather.WeatherCell}, the client generates it itself and the server only sends a
+ * new component when the player enters another cell or the weather is overridden, e.g. by a console command.
+ */
+public class WeatherPredictionComponent implements Component<WeatherPredictionComponent> {
+
+    /**
+     * Seed of the generator of the cell.
+     */
+    @Replicate
+    public long seed;
+
+    @Replicate
+    public int cellX;
+
+    @Replicate
+    public int cellZ;
+
+    /**
+     * The temperature of the cell, which decides on the type of downfall, see
+     * {@link org.terasology.weatherManager.weather.DownfallTypes}.
+     */
+    @Replicate
+    public float temperature;
+
+    /**
+     * Mean duration of the conditions in milliseconds.
+     */
+    @Replicate
+    public float meanDuration;
+
+    /**
+     * The condition set by a command, packed like {@link WeatherStateComponent#packedState}, which holds instead of the
+     * weather of the cell until {@link #overrideEnd}.
+     */
+    @Replicate
+    public int overrideState;
+
+    /**
+     * World time in milliseconds at which the override ends, 0 if there is none.
+     */
+    @Replicate
+    public long overrideEnd;
+
+    @Override
+    public void copyFrom(WeatherPredictionComponent other) {
+        this.seed = other.seed;
+        this.cellX = other.cellX;
+        this.cellZ = other.cellZ;
+        this.temperature = other.temperature;
+        this.meanDuration = other.meanDuration;
+        this.overrideState = other.overrideState;
+        this.overrideEnd = other.overrideEnd;
+    }
+}
@@ -0,0 +1,104 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.components;
+
+import org.joml.Vector2f;
+import org.terasology.engine.network.Replicate;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.weatherManager.weather.DownfallCondition;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+import org.terasology.weatherManager.weather.Severity;
+import org.terasology.weatherManager.weather.WeatherCondition;
+
+/**
+ * The weather of the cell a player is in, replicated from the server to the player on its client entity.
+ * <p>
+ * The whole state is packed into a single int, so a change costs only a few bytes on the network. The server only saves
+ * the component when the packed value changes, which is when it is sent.
+ */
+public class WeatherStateComponent implements Component<WeatherStateComponent> {
+
+    /**
+     * Resolution of the quantized wind components.
+     */
+    private static final float WIND_STEP = 1 / 64f;
+
+    // bit layout, from least significant: downfall type (2), downfall amount (2), thunder (1), cloudiness (2), wind x (8), wind y (8)
+    private static final int TYPE_SHIFT = 0;
+    private static final int AMOUNT_SHIFT = 2;
+    private static final int THUNDER_SHIFT = 4;
+    private static final int CLOUDINESS_SHIFT = 5;
+    private static final int WIND_X_SHIFT = 7;
+    private static final int WIND_Y_SHIFT = 15;
+
+    @Replicate
+    public int packedState;
+
+    /**
+     * @param condition the condition to pack
+     * @return the packed representation of the condition, see {@link #packedState}
+     */
+    public static int pack(WeatherCondition condition) {
+        DownfallCondition.DownfallValues downfall = condition.downfallCondition.getDownfallValues();
+        return pack(downfall.type, downfall.amount, downfall.withThunder, condition.cloudiness,
+                condition.wind.x(), condition.wind.y());
+    }
+
+    /**
+     * @param condition the condition to pack
+     * @return the packed representation of the condition, see {@link #packedState}
+     */
+    public static int pack(MutableWeatherCondition condition) {
+        return pack(condition.downfallType, condition.downfallAmount, condition.withThunder, condition.cloudiness,
+                condition.wind.x, condition.wind.y);
+    }
+
+    private static int pack(DownfallCondition.DownfallType type, Severity amount, boolean withThunder, Severity cloudiness,
+                            float windX, float windY) {
+        return type.ordinal() << TYPE_SHIFT
+                | amount.ordinal() << AMOUNT_SHIFT
+                | (withThunder ? 1 : 0) << THUNDER_SHIFT
+                | cloudiness.ordinal() << CLOUDINESS_SHIFT
+                | quantizeWind(windX) << WIND_X_SHIFT
+                | quantizeWind(windY) << WIND_Y_SHIFT;
+    }
+
+    private static int quantizeWind(float value) {
+        int quantized = Math.round(value / WIND_STEP);
+        return Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, quantized)) & 0xFF;
+    }
+
+    private static float dequantizeWind(int bits) {
+        return (byte) bits * WIND_STEP;
+    }
+
+    public DownfallCondition.DownfallType getDownfallType() {
+        return DownfallCondition.DownfallType.values()[(packedState >>> TYPE_SHIFT) & 3];
+    }
+
+    public Severity getDownfallAmount() {
+        return Severity.values()[(packedState >>> AMOUNT_SHIFT) & 3];
+    }
+
+    public boolean isWithThunder() {
+        return ((packedState >>> THUNDER_SHIFT) & 1) != 0;
+    }
+
+    public Severity getCloudiness() {
+        return Severity.values()[(packedState >>> CLOUDINESS_SHIFT) & 3];
+    }
+
+    /**
+     * @param dest will hold the wind
+     * @return dest
+     */
+    public Vector2f getWind(Vector2f dest) {
+        return dest.set(dequantizeWind((packedState >>> WIND_X_SHIFT) & 0xFF), dequantizeWind((packedState >>> WIND_Y_SHIFT) & 0xFF));
+    }
+
+    @Override
+    public void copyFrom(WeatherStateComponent other) {
+        this.packedState = other.packedState;
+    }
+}
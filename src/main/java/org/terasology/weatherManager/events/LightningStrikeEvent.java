@@ -0,0 +1,34 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.events;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.network.BroadcastEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Event which is sent to all clients once per lightning strike, e.g. to show a flash, see
+ * {@link org.terasology.weatherManager.systems.LightningEffectSystem}
+ */
+@BroadcastEvent
+public class LightningStrikeEvent implements Event {
+
+    private Vector3i position;
+
+    public LightningStrikeEvent() {
+        // for serialization
+    }
+
+    public LightningStrikeEvent(Vector3ic position) {
+        this.position = new Vector3i(position);
+    }
+
+    /**
+     * @return the block that was struck
+     */
+    public Vector3ic getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,32 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.events;
+
+import org.terasology.gestalt.entitysystem.event.Event;
+import org.terasology.weatherManager.weather.WeatherCondition;
+
+/**
+ * Event which is called once whenever the weather condition actually changes
+ */
+public class WeatherChangedEvent implements Event {
+
+    private final WeatherCondition oldCondition;
+    private final WeatherCondition newCondition;
+
+    public WeatherChangedEvent(WeatherCondition oldCondition, WeatherCondition newCondition) {
+        this.oldCondition = oldCondition;
+        this.newCondition = newCondition;
+    }
+
+    /**
+     * @return the previous condition, null if there was none
+     */
+    public WeatherCondition getOldCondition() {
+        return oldCondition;
+    }
+
+    public WeatherCondition getNewCondition() {
+        return newCondition;
+    }
+}
@@ -0,0 +1,173 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of named counters, gauges and timers that describe the cost of the weather simulation.
+ * <p>
+ * Metrics are looked up once by name and then updated through the returned objects, which is cheap and thread safe
+ * (world generation plugins run on generator threads). Timers only measure a sample of the calls to keep the overhead low.
+ */
+public final class WeatherMetrics {
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param name the name of the counter
+     * @return the counter with the given name, created if it does not exist yet
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @param name the name of the gauge
+     * @return the gauge with the given name, created if it does not exist yet
+     */
+    public Gauge gauge(String name) {
+        return gauges.computeIfAbsent(name, key -> new Gauge());
+    }
+
+    /**
+     * @param name the name of the timer
+     * @return the timer with the given name, created if it does not exist yet
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * Resets all counters and timers. Gauges describe a current value and are kept.
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(Timer::reset);
+    }
+
+    /**
+     * @param prefix only metrics whose name starts with this prefix are included, may be empty
+     * @return a human readable listing of the matching metrics, sorted by name
+     */
+    public String report(String prefix) {
+        Map<String, String> lines = new TreeMap<>();
+        counters.forEach((name, counter) -> lines.put(name, Long.toString(counter.get())));
+        gauges.forEach((name, gauge) -> lines.put(name, Long.toString(gauge.get())));
+        timers.forEach((name, timer) -> lines.put(name, timer.toString()));
+
+        StringBuilder builder = new StringBuilder();
+        lines.forEach((name, value) -> {
+            if (name.startsWith(prefix)) {
+                builder.append(name).append(": ").append(value).append('\n');
+            }
+        });
+        return builder.toString();
+    }
+
+    /**
+     * A monotonically increasing count.
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * A value that describes the current state, e.g. the number of live objects.
+     */
+    public static final class Gauge {
+        private volatile long value;
+
+        public void set(long newValue) {
+            value = newValue;
+        }
+
+        public long get() {
+            return value;
+        }
+    }
+
+    /**
+     * Counts every call, but only measures the duration of one in {@link #SAMPLE_RATE} calls.
+     * <p>
+     * Usage: {@code long start = timer.start(); ...; timer.stop(start);}
+     */
+    public static final class Timer {
+        private static final int SAMPLE_RATE = 16;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder sampledNanos = new LongAdder();
+
+        /**
+         * @return a start token to pass to {@link #stop(long)}
+         */
+        public long start() {
+            calls.increment();
+            // the sum is not exact under contention, which is fine for sampling
+            return calls.sum() % SAMPLE_RATE == 0 ? System.nanoTime() : -1;
+        }
+
+        /**
+         * @param start the token returned by {@link #start()}
+         */
+        public void stop(long start) {
+            if (start >= 0) {
+                sampledNanos.add(System.nanoTime() - start);
+                samples.increment();
+            }
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /**
+         * @return the mean duration of the sampled calls in nanoseconds
+         */
+        public double getMeanNanos() {
+            long count = samples.sum();
+            return count == 0 ? 0 : sampledNanos.sum() / (double) count;
+        }
+
+        /**
+         * @return the estimated total time spent in all calls in nanoseconds
+         */
+        public double getEstimatedTotalNanos() {
+            return getMeanNanos() * getCalls();
+        }
+
+        void reset() {
+            calls.reset();
+            samples.reset();
+            sampledNanos.reset();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d calls, %.1f us mean, %.1f ms total (est.)",
+                    getCalls(), getMeanNanos() / 1e3, getEstimatedTotalNanos() / 1e6);
+        }
+    }
+}
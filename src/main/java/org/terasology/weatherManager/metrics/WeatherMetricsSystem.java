@@ -0,0 +1,39 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.metrics;
+
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.console.commandSystem.annotations.Command;
+import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.permission.PermissionManager;
+import org.terasology.engine.registry.Share;
+
+/**
+ * Provides the {@link WeatherMetrics} of the weather module to other systems and makes them queryable from the console.
+ */
+@RegisterSystem(RegisterMode.ALWAYS)
+@Share(WeatherMetricsSystem.class)
+public class WeatherMetricsSystem extends BaseComponentSystem {
+
+    private final WeatherMetrics metrics = new WeatherMetrics();
+
+    @Command(shortDescription = "Show weather metrics", helpText = "Lists the counters and timers of the weather systems, "
+            + "optionally only those starting with the given prefix (e.g. 'clouds')", runOnServer = true)
+    public String weatherMetrics(@CommandParam(value = "prefix", required = false) String prefix) {
+        return metrics.report(prefix == null ? "" : prefix);
+    }
+
+    @Command(shortDescription = "Reset weather metrics", helpText = "Resets all counters and timers of the weather systems",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String resetWeatherMetrics() {
+        metrics.reset();
+        return "Weather metrics reset.";
+    }
+
+    public WeatherMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,18 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.snow;
+
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.generation.Border3D;
+import org.terasology.engine.world.generation.facets.base.BaseBooleanFieldFacet2D;
+
+/**
+ * Defines which columns are covered by snow when they are generated.
+ */
+public class SnowCoverFacet extends BaseBooleanFieldFacet2D {
+
+    public SnowCoverFacet(BlockRegion targetRegion, Border3D border) {
+        super(targetRegion, border);
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.snow;
+
+import org.joml.Vector2ic;
+import org.terasology.engine.registry.CoreRegistry;
+import org.terasology.engine.world.generation.Border3D;
+import org.terasology.engine.world.generation.Facet;
+import org.terasology.engine.world.generation.FacetProviderPlugin;
+import org.terasology.engine.world.generation.GeneratingRegion;
+import org.terasology.engine.world.generation.Produces;
+import org.terasology.engine.world.generation.Requires;
+import org.terasology.engine.world.generation.facets.SurfaceTemperatureFacet;
+import org.terasology.engine.world.generator.plugin.RegisterPlugin;
+import org.terasology.weatherManager.systems.RegionalWeatherSystem;
+import org.terasology.weatherManager.weather.DownfallTypes;
+
+/**
+ * A facet provider for the snow cover of newly generated chunks.
+ * <p>
+ * Columns are covered where it is cold enough to snow. Where it is currently snowing, slightly warmer columns are covered
+ * as well, so that chunks generated during a snowstorm match the snow placed at runtime around them.
+ */
+@RegisterPlugin
+@Produces(SnowCoverFacet.class)
+@Requires(@Facet(SurfaceTemperatureFacet.class))
+public class SnowCoverProvider implements FacetProviderPlugin {
+
+    /**
+     * Additional temperature up to which columns are covered while it is snowing.
+     */
+    private static final float SNOWFALL_MARGIN = 0.1f;
+
+    @Override
+    public void setSeed(long seed) {
+    }
+
+    @Override
+    public void process(GeneratingRegion region) {
+        Border3D border = region.getBorderForFacet(SnowCoverFacet.class);
+        SnowCoverFacet facet = new SnowCoverFacet(region.getRegion(), border);
+
+        SurfaceTemperatureFacet temperatureFacet = region.getRegionFacet(SurfaceTemperatureFacet.class);
+        if (temperatureFacet != null) {
+            // regionalWeather is available only if run with AUTHORITY flag
+            RegionalWeatherSystem regionalWeather = CoreRegistry.get(RegionalWeatherSystem.class);
+
+            // the margin only changes at the borders of the weather cells
+            long lastKey = 0;
+            float margin = -1;
+            for (Vector2ic pos : facet.getWorldArea()) {
+                long key = RegionalWeatherSystem.getCellKey(pos.x(), pos.y());
+                if (margin < 0 || key != lastKey) {
+                    lastKey = key;
+                    margin = regionalWeather != null && regionalWeather.isSnowing(pos.x(), pos.y()) ? SNOWFALL_MARGIN : 0;
+                }
+                float temperature = temperatureFacet.getWorld(pos.x(), pos.y()) - margin;
+                if (DownfallTypes.isFreezing(temperature)) {
+                    facet.setWorld(pos, true);
+                }
+            }
+        }
+
+        region.setRegionFacet(SnowCoverFacet.class, facet);
+    }
+}
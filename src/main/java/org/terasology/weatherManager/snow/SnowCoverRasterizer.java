@@ -0,0 +1,57 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.snow;
+
+import org.terasology.engine.registry.CoreRegistry;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.generation.Region;
+import org.terasology.engine.world.generation.WorldRasterizerPlugin;
+import org.terasology.engine.world.generation.facets.ElevationFacet;
+import org.terasology.engine.world.generator.plugin.RegisterPlugin;
+
+/**
+ * Rasterizes {@link SnowCoverFacet} data onto a given chunk, by placing snow on top of the generated surface
+ */
+@RegisterPlugin
+public class SnowCoverRasterizer implements WorldRasterizerPlugin {
+
+    private Block air;
+    private Block snow;
+
+    @Override
+    public void initialize() {
+        // like CloudRasterizer, since @In does not work for world generation plugins
+        BlockManager blockManager = CoreRegistry.get(BlockManager.class);
+        air = blockManager.getBlock(BlockManager.AIR_ID);
+        snow = blockManager.getBlock("WeatherManager:snow");
+    }
+
+    @Override
+    public void generateChunk(Chunk chunk, Region chunkRegion) {
+        SnowCoverFacet snowCover = chunkRegion.getFacet(SnowCoverFacet.class);
+        ElevationFacet elevation = chunkRegion.getFacet(ElevationFacet.class);
+        if (snowCover == null || elevation == null) {
+            return;
+        }
+
+        for (int z = 0; z < chunk.getChunkSizeZ(); z++) {
+            for (int x = 0; x < chunk.getChunkSizeX(); x++) {
+                if (!snowCover.get(x, z)) {
+                    continue;
+                }
+                // the snow goes into the first block above the surface
+                int y = (int) Math.floor(elevation.get(x, z)) + 1 - chunk.getChunkWorldOffsetY();
+                if (y < 1 || y >= chunk.getChunkSizeY()) {
+                    continue;
+                }
+                Block ground = chunk.getBlock(x, y - 1, z);
+                if (chunk.getBlock(x, y, z).equals(air) && !ground.isPenetrable() && ground.isAttachmentAllowed()) {
+                    chunk.setBlock(x, y, z, snow);
+                }
+            }
+        }
+    }
+}
@@ -22,7 +22,16 @@ import org.terasology.engine.world.WorldProvider;
 import org.terasology.engine.world.block.Block;
 import org.terasology.engine.world.block.BlockManager;
 import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.flowingliquids.world.block.LiquidData;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.weatherManager.metrics.WeatherMetrics;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
+import org.terasology.weatherManager.weather.DownfallCondition;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+import org.terasology.weatherManager.weather.Severity;
+
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.terasology.weatherManager.systems.WeatherManagerSystem.EVAPORATE_WATER;
 import static org.terasology.weatherManager.systems.WeatherManagerSystem.MELT_SNOW;
@@ -31,7 +40,16 @@ import static org.terasology.weatherManager.systems.WeatherManagerSystem.PLACE_W
 
 @RegisterSystem(RegisterMode.AUTHORITY)
 public class BlockPlacingWeatherSystem extends BaseComponentSystem {
-    private static final int SNOW_BLOCK_RANGE = 40;
+    /**
+     * Name of the extra data field in which FlowingLiquids stores the height of a liquid block.
+     */
+    private static final String LIQUID_DATA = "flowingLiquids.flow";
+
+    /**
+     * Liquid levels that fall per second around each player in heavy rain. Lighter rain falls proportionally slower.
+     */
+    static final float RAIN_LEVELS_PER_SECOND = 24f;
+
     private Block air;
     private Block snow;
     private Block water;
@@ -46,57 +64,95 @@ public class BlockPlacingWeatherSystem extends BaseComponentSystem {
     @In
     private Context context;
 
+    @In
+    private WeatherMetricsSystem metricsSystem;
+
+    @In
+    private WeatherManagerSystem weatherManagerSystem;
+
     private NetworkSystem networkSystem;
 
+    private WeatherMetrics.Counter blocksWritten;
+    private WeatherMetrics.Counter findSpotCalls;
+    private WeatherMetrics.Counter findSpotScanLength;
+    private WeatherMetrics.Counter eventsHandled;
+    private WeatherMetrics.Timer placeTimer;
+
     @Override
     public void postBegin() {
         air = blockManager.getBlock("engine:air");
         snow = blockManager.getBlock("WeatherManager:snow");
         water = blockManager.getBlock("CoreAssets:water");
         networkSystem = context.get(NetworkSystem.class);
+
+        WeatherMetrics metrics = metricsSystem.getMetrics();
+        blocksWritten = metrics.counter("blockPlacing.blocksWritten");
+        findSpotCalls = metrics.counter("blockPlacing.findSpotCalls");
+        findSpotScanLength = metrics.counter("blockPlacing.findSpotScanLength");
+        eventsHandled = metrics.counter("events.blockPlacing");
+        placeTimer = metrics.timer("blockPlacing.onPlaceEvent");
     }
 
     /**
-     * Places snow blocks on the ground when it is snowing. The event with the id PLACE_SNOW will only be created when
-     * it is snowing and the other events also correspond with the appropriate weather condition.
+     * Places and removes snow and water around each player, according to the weather of the cell the player is in. The
+     * periodic actions are scheduled by {@link WeatherManagerSystem} regardless of the weather, since it differs between
+     * the players.
      *
-     * @param event The event that means it is time to place snow
-     * @param worldEntity The entity that sent the event (assumed to be the player)
+     * @param event The event that means it is time to place or remove blocks
+     * @param worldEntity The entity that sent the event
      */
     @ReceiveEvent
     public void onPlaceEvent(PeriodicActionTriggeredEvent event, EntityRef worldEntity) {
+        String actionId = event.getActionId();
+        if (!isWeatherAction(actionId)) {
+            return;
+        }
         final Vector3f position = new Vector3f();
         final Vector3i playerPos = new Vector3i();
-        switch (event.getActionId()) {
-            case PLACE_SNOW:
-                for (Client currentPlayer : networkSystem.getPlayers()) {
-                    LocationComponent locComp = currentPlayer.getEntity().getComponent(LocationComponent.class);
-                    playerPos.set(locComp.getWorldPosition(position), RoundingMode.FLOOR);
-                    placeSnow(playerPos);
-                }
-                break;
-            case MELT_SNOW:
-                for (Client currentPlayer : networkSystem.getPlayers()) {
-                    LocationComponent locComp = currentPlayer.getEntity().getComponent(LocationComponent.class);
-                    playerPos.set(locComp.getWorldPosition(position), RoundingMode.FLOOR);
-                    meltSnow(playerPos);
-                }
-                break;
-            case PLACE_WATER:
-                for (Client currentPlayer : networkSystem.getPlayers()) {
-                    LocationComponent locComp = currentPlayer.getEntity().getComponent(LocationComponent.class);
-                    playerPos.set(locComp.getWorldPosition(position), RoundingMode.FLOOR);
-                    placeWater(playerPos);
-                }
-                break;
-            case EVAPORATE_WATER:
-                for (Client currentPlayer : networkSystem.getPlayers()) {
-                    LocationComponent locComp = currentPlayer.getEntity().getComponent(LocationComponent.class);
-                    playerPos.set(locComp.getWorldPosition(position), RoundingMode.FLOOR);
-                    evaporateWater(playerPos);
-                }
-                break;
+        final long start = placeTimer.start();
+        eventsHandled.increment();
+        // the rain of all players is written in one batch
+        Map<Vector3i, Integer> rainfall = new HashMap<>();
+        for (Client currentPlayer : networkSystem.getPlayers()) {
+            LocationComponent locComp = currentPlayer.getEntity().getComponent(LocationComponent.class);
+            if (locComp == null) {
+                continue;
+            }
+            playerPos.set(locComp.getWorldPosition(position), RoundingMode.FLOOR);
+            MutableWeatherCondition condition = weatherManagerSystem.getCondition(playerPos.x(), playerPos.z());
+            DownfallCondition.DownfallType type = condition.downfallType;
+            switch (actionId) {
+                case PLACE_SNOW:
+                    if (type == DownfallCondition.DownfallType.SNOW) {
+                        placeSnow(playerPos);
+                    }
+                    break;
+                case MELT_SNOW:
+                    if (type == DownfallCondition.DownfallType.NONE || type == DownfallCondition.DownfallType.RAIN) {
+                        meltSnow(playerPos);
+                    }
+                    break;
+                case PLACE_WATER:
+                    if (type == DownfallCondition.DownfallType.RAIN) {
+                        rain(playerPos, condition.downfallAmount, rainfall);
+                    }
+                    break;
+                case EVAPORATE_WATER:
+                    if (type == DownfallCondition.DownfallType.NONE) {
+                        evaporateWater(playerPos);
+                    }
+                    break;
+            }
         }
+        if (!rainfall.isEmpty()) {
+            addLiquid(rainfall);
+        }
+        placeTimer.stop(start);
+    }
+
+    private static boolean isWeatherAction(String actionId) {
+        return PLACE_SNOW.equals(actionId) || MELT_SNOW.equals(actionId) || PLACE_WATER.equals(actionId)
+                || EVAPORATE_WATER.equals(actionId);
     }
 
     /**
@@ -106,33 +162,49 @@ public class BlockPlacingWeatherSystem extends BaseComponentSystem {
      * @param x the x position that the blocks
      * @return a vector with the height where the block should be placed, null if no block should be placed.
      */
-    private Vector3i findSpot(Block toCheck, int x, int z, int initialY) {
-        int currentY = initialY + SNOW_BLOCK_RANGE;
+    Vector3i findSpot(Block toCheck, int x, int z, int initialY) {
+        int currentY = findSurface(x, z, initialY);
+        if (currentY == Integer.MIN_VALUE) {
+            return null;
+        }
+        Block ground = worldProvider.getBlock(x, currentY - 1, z);
+        if (ground.equals(toCheck)) {
+            return new Vector3i(x, currentY - 1, z);
+        } else if (toCheck.equals(air) && !ground.isPenetrable() && ground.isAttachmentAllowed()) {
+            return new Vector3i(x, currentY, z);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Finds the lowest air block of a column that is exposed to the weather.
+     *
+     * @return the height of that block, {@link Integer#MIN_VALUE} if there is none within range
+     */
+    private int findSurface(int x, int z, int initialY) {
+        int range = weatherManagerSystem.getConfig().snowBlockRange;
+        int currentY = initialY + range;
         int iter = 0;
-        while (iter < SNOW_BLOCK_RANGE * 2 && worldProvider.getBlock(x, currentY, z).equals(air)) {
+        while (iter < range * 2 && worldProvider.getBlock(x, currentY, z).equals(air)) {
             iter++;
             currentY--;
         }
-        while (iter < SNOW_BLOCK_RANGE * 2 && !worldProvider.getBlock(x, currentY, z).equals(air)) {
+        while (iter < range * 2 && !worldProvider.getBlock(x, currentY, z).equals(air)) {
             iter++;
             currentY++;
         }
-        if (iter >= SNOW_BLOCK_RANGE * 2) {
-            return null;
+        findSpotCalls.increment();
+        findSpotScanLength.add(iter);
+        if (iter >= range * 2) {
+            return Integer.MIN_VALUE;
         }
 
         if (worldProvider.getSunlight(x, currentY, z) != Chunks.MAX_SUNLIGHT) {
             // The block isn't actually exposed to the weather.
-            return null;
-        }
-        Block ground = worldProvider.getBlock(x, currentY - 1, z);
-        if (ground.equals(toCheck)) {
-            return new Vector3i(x, currentY - 1, z);
-        } else if (toCheck.equals(air) && !ground.isPenetrable() && ground.isAttachmentAllowed()) {
-            return new Vector3i(x, currentY, z);
-        } else {
-            return null;
+            return Integer.MIN_VALUE;
         }
+        return currentY;
     }
 
     private void placeSnow(Vector3ic playerPos) {
@@ -141,6 +213,7 @@ public class BlockPlacingWeatherSystem extends BaseComponentSystem {
         Vector3i spotToPlace = findSpot(air, x, z, playerPos.y());
         if (spotToPlace != null) {
             worldProvider.setBlock(spotToPlace, snow);
+            blocksWritten.increment();
         }
     }
 
@@ -150,16 +223,71 @@ public class BlockPlacingWeatherSystem extends BaseComponentSystem {
         Vector3i spotToPlace = findSpot(snow, x, z, playerPos.y());
         if (spotToPlace != null) {
             worldProvider.setBlock(spotToPlace, water);
+            blocksWritten.increment();
         }
     }
 
-    private void placeWater(Vector3ic playerPos) {
-        int x = getValueToPlaceBlock(playerPos.x());
-        int z = getValueToPlaceBlock(playerPos.z());
-        Vector3i spotToPlace = findSpot(air, x, z, playerPos.y());
-        if (spotToPlace != null) {
-            worldProvider.setBlock(spotToPlace, water);
+    /**
+     * Lets rain fall as partial liquid levels onto random surface cells around a player, at a rate proportional to the
+     * severity of the rain. Instead of placing full source blocks, the levels are added to existing puddles or start new
+     * shallow ones.
+     *
+     * @param playerPos the position of the player
+     * @param severity the amount of rain at the player
+     * @param rainfall collects the number of levels to add per position
+     */
+    private void rain(Vector3ic playerPos, Severity severity, Map<Vector3i, Integer> rainfall) {
+        float expectedLevels = RAIN_LEVELS_PER_SECOND * severity.getNumericValue()
+                * (weatherManagerSystem.getConfig().rainPeriod / 1000f);
+        // round stochastically, so that light rain still falls at the right rate on average
+        int levels = (int) expectedLevels;
+        if (rand.nextFloat() < expectedLevels - levels) {
+            levels++;
+        }
+
+        for (int i = 0; i < levels; i++) {
+            int x = getValueToPlaceBlock(playerPos.x());
+            int z = getValueToPlaceBlock(playerPos.z());
+            int y = findSurface(x, z, playerPos.y());
+            if (y == Integer.MIN_VALUE) {
+                continue;
+            }
+            Block ground = worldProvider.getBlock(x, y - 1, z);
+            if (ground.equals(water)) {
+                rainfall.merge(new Vector3i(x, y - 1, z), 1, Integer::sum);
+            } else if (!ground.isPenetrable() && ground.isAttachmentAllowed()) {
+                rainfall.merge(new Vector3i(x, y, z), 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Adds liquid levels to water blocks, or places new water blocks of the given height.
+     *
+     * @param rainfall the number of levels to add per position
+     */
+    private void addLiquid(Map<Vector3i, Integer> rainfall) {
+        Map<Vector3ic, Block> newWater = new HashMap<>();
+        for (Map.Entry<Vector3i, Integer> entry : rainfall.entrySet()) {
+            Vector3i pos = entry.getKey();
+            if (worldProvider.getBlock(pos.x, pos.y, pos.z).equals(water)) {
+                byte data = (byte) worldProvider.getExtraData(LIQUID_DATA, pos);
+                int height = Math.min(LiquidData.MAX_HEIGHT, LiquidData.getHeight(data) + entry.getValue());
+                if (height != LiquidData.getHeight(data)) {
+                    worldProvider.setExtraData(LIQUID_DATA, pos, LiquidData.setHeight(data, height));
+                }
+            } else {
+                newWater.put(pos, water);
+            }
+        }
+        if (!newWater.isEmpty()) {
+            worldProvider.setBlocks(newWater);
+            for (Vector3ic pos : newWater.keySet()) {
+                int height = Math.min(LiquidData.MAX_HEIGHT, rainfall.get(pos));
+                worldProvider.setExtraData(LIQUID_DATA, pos, LiquidData.setHeight((byte) 0, height));
+            }
         }
+        blocksWritten.add(rainfall.size());
     }
 
     private void evaporateWater(Vector3ic playerPos) {
@@ -168,10 +296,12 @@ public class BlockPlacingWeatherSystem extends BaseComponentSystem {
         Vector3i spotToPlace = findSpot(water, x, z, playerPos.y());
         if (spotToPlace != null) {
             worldProvider.setBlock(spotToPlace, air);
+            blocksWritten.increment();
         }
     }
 
     private int getValueToPlaceBlock(int initial) {
-        return initial + rand.nextInt(SNOW_BLOCK_RANGE * 2) - SNOW_BLOCK_RANGE;
+        int range = weatherManagerSystem.getConfig().snowBlockRange;
+        return initial + rand.nextInt(range * 2) - range;
     }
 }
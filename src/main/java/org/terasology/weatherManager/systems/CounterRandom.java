@@ -0,0 +1,68 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.systems;
+
+/**
+ * Stateless (counter based) random numbers. Every value is a pure function of a seed, an index and a slot, so any value
+ * of a sequence can be computed directly, without generating the values before it.
+ */
+final class CounterRandom {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private CounterRandom() {
+    }
+
+    /**
+     * @param seed the seed of the sequence
+     * @param index the position in the sequence
+     * @param slot distinguishes several values at the same position
+     * @return a uniformly distributed random value in [0, 1)
+     */
+    static float nextFloat(long seed, long index, int slot) {
+        return (mix(seed, index, slot) >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Computes a normally distributed value with the Box-Muller transform. This uses the slots {@code slot} and {@code
+     * slot + 1}.
+     *
+     * @param seed the seed of the sequence
+     * @param index the position in the sequence
+     * @param slot the first of the two slots to use
+     * @param mean the mean of the distribution
+     * @param stdDev the standard deviation of the distribution
+     * @return a normally distributed random value
+     */
+    static double nextGaussian(long seed, long index, int slot, double mean, double stdDev) {
+        // 1 - u avoids log(0)
+        double u1 = 1.0 - (mix(seed, index, slot) >>> 11) * 0x1.0p-53;
+        double u2 = (mix(seed, index, slot + 1) >>> 11) * 0x1.0p-53;
+
+        return mean + stdDev * Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    /**
+     * Derives a seed for an independent sequence, e.g. for one of several generators sharing a base seed.
+     *
+     * @param seed the base seed
+     * @param key distinguishes the derived sequences
+     * @return a well mixed seed, different keys give unrelated seeds
+     */
+    static long deriveSeed(long seed, long key) {
+        return finalizer(seed ^ finalizer(key + GOLDEN_GAMMA));
+    }
+
+    /**
+     * The SplitMix64 finalizer applied to a combination of the inputs.
+     */
+    private static long mix(long seed, long index, int slot) {
+        return finalizer(seed + (index * 16 + slot + 1) * GOLDEN_GAMMA);
+    }
+
+    private static long finalizer(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,105 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.systems;
+
+import com.google.common.base.Preconditions;
+import org.terasology.markovChains.dataStructures.TransitionMatrix;
+
+/**
+ * A {@link TransitionMatrix} that has been evaluated once and stored as flat, normalized cumulative probabilities.
+ * <p>
+ * The history of a chain is addressed by a row index, which is built with {@link #row(int, int)} from the oldest to the
+ * most recent state. Sampling the next state is a binary search within that row and does not allocate.
+ */
+final class CumulativeTransitionTable {
+
+    private final int nrOfStates;
+
+    /**
+     * One row of {@link #nrOfStates} entries per possible history, each row ends with 1.
+     */
+    private final float[] cumulative;
+
+    /**
+     * @param matrix the matrix to evaluate
+     * @param order the order of the matrix, i.e. the length of the history
+     * @param nrOfStates the number of states of the matrix
+     */
+    CumulativeTransitionTable(TransitionMatrix matrix, int order, int nrOfStates) {
+        Preconditions.checkArgument(order > 0 && nrOfStates > 0, "Order and number of states must be positive");
+
+        this.nrOfStates = nrOfStates;
+
+        int rows = 1;
+        for (int i = 0; i < order; i++) {
+            rows *= nrOfStates;
+        }
+
+        cumulative = new float[rows * nrOfStates];
+
+        int[] states = new int[order + 1];
+        for (int row = 0; row < rows; row++) {
+            // decode the history, most recent state last
+            int remainder = row;
+            for (int i = order - 1; i >= 0; i--) {
+                states[i] = remainder % nrOfStates;
+                remainder /= nrOfStates;
+            }
+
+            int offset = row * nrOfStates;
+            float sum = 0;
+            for (int next = 0; next < nrOfStates; next++) {
+                states[order] = next;
+                sum += matrix.get(states);
+                cumulative[offset + next] = sum;
+            }
+
+            for (int next = 0; next < nrOfStates; next++) {
+                // a history without any possible successor falls back to a uniform distribution
+                cumulative[offset + next] = sum > 0 ? cumulative[offset + next] / sum : (next + 1) / (float) nrOfStates;
+            }
+            cumulative[offset + nrOfStates - 1] = 1.0f;
+        }
+    }
+
+    /**
+     * @return the index of the row that represents the history consisting of only the given state
+     */
+    int row(int state) {
+        return state;
+    }
+
+    /**
+     * Extends a history by one state.
+     *
+     * @param row the row index of the older part of the history
+     * @param state the next (more recent) state of the history
+     * @return the row index of the extended history
+     */
+    int row(int row, int state) {
+        return row * nrOfStates + state;
+    }
+
+    /**
+     * Samples the state that follows the given history.
+     *
+     * @param row the row index of the history, see {@link #row(int, int)}
+     * @param random a uniformly distributed random value in [0, 1)
+     * @return the next state
+     */
+    int sample(int row, float random) {
+        int low = row * nrOfStates;
+        int high = low + nrOfStates - 1;
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > random) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return low - row * nrOfStates;
+    }
+}
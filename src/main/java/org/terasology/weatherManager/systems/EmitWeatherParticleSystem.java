@@ -4,13 +4,18 @@
 package org.terasology.weatherManager.systems;
 
 import org.joml.Quaternionf;
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
 import org.joml.Vector3f;
 import org.terasology.engine.entitySystem.entity.EntityBuilder;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.engine.logic.characters.events.DeathEvent;
 import org.terasology.engine.logic.location.Location;
 import org.terasology.engine.logic.location.LocationComponent;
@@ -20,13 +25,16 @@ import org.terasology.engine.particles.ParticlePool;
 import org.terasology.engine.particles.components.ParticleEmitterComponent;
 import org.terasology.engine.particles.components.generators.VelocityRangeGeneratorComponent;
 import org.terasology.engine.registry.In;
+import org.terasology.engine.world.time.WorldTime;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
 import org.terasology.gestalt.naming.Name;
-import org.terasology.weatherManager.events.StartHailEvent;
-import org.terasology.weatherManager.events.StartRainEvent;
-import org.terasology.weatherManager.events.StartSnowEvent;
-import org.terasology.weatherManager.events.StartSunEvent;
+import org.terasology.weatherManager.components.WeatherManagerConfigComponent;
+import org.terasology.weatherManager.components.WeatherStateComponent;
+import org.terasology.weatherManager.metrics.WeatherMetrics;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
 import org.terasology.weatherManager.weather.DownfallCondition;
+import org.terasology.weatherManager.weather.Severity;
+import org.terasology.weatherManager.weather.WindField;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -35,22 +43,53 @@ import java.util.Random;
 //TODO: destroy on contact with blocks (water)
 
 @RegisterSystem(RegisterMode.CLIENT)
-public class EmitWeatherParticleSystem extends BaseComponentSystem {
+public class EmitWeatherParticleSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
 
     private static final Name SUN = new Name("sunny");
     private static final Name SNOW = new Name("snow");
     private static final Name RAIN = new Name("rain");
     private static final Name HAIL = new Name("hail");
 
-    private static final int PARTICLE_EMITTERS_COUNT = 500;
     private static final int PARTICLE_AREA_SIZE = 15;
     private static final int PARTICLE_AREA_HALF_SIZE = PARTICLE_AREA_SIZE / 2;
     private static final float PARTICLE_SPAWN_HEIGHT = 12;
 
+    /**
+     * Time in seconds it takes to cross-fade from one type of downfall to another.
+     */
+    private static final float TRANSITION_DURATION = 5.0f;
+
+    /**
+     * Minimum change of the particle velocity before the emitters are updated to follow the wind.
+     */
+    private static final float WIND_VELOCITY_EPSILON = 0.02f;
+
     private static final Random RANDOM = new Random();
 
+    /**
+     * Number of emitters around the local player, see {@link WeatherManagerConfigComponent#particleEmittersCount}.
+     */
+    private int particleEmittersCount = new WeatherManagerConfigComponent().particleEmittersCount;
+
     private Name currentWeather = SUN;
-    private final List<EntityRef> emitters = new ArrayList<>(PARTICLE_EMITTERS_COUNT);
+    private final List<EntityRef> emitters = new ArrayList<>();
+
+    /**
+     * Emitters of the previous weather that are being phased out during a transition.
+     * Together with {@link #emitters} this never holds more than {@link #particleEmittersCount} entities.
+     */
+    private final List<EntityRef> fadingEmitters = new ArrayList<>();
+    private float transitionProgress = 1.0f;
+
+    private final Vector3f minVelocity = new Vector3f();
+    private final Vector3f maxVelocity = new Vector3f();
+    private final Vector2f sampledWind = new Vector2f();
+
+    // the weather of the local player's cell as replicated by the server, see WeatherStateComponent
+    private DownfallCondition.DownfallType downfallType = DownfallCondition.DownfallType.NONE;
+    private Severity severity = Severity.NONE;
+    private final WindField windField = new WindField();
+    private ParticlePool particlePool;
 
     @In
     private LocalPlayer localPlayer;
@@ -59,11 +98,23 @@ public class EmitWeatherParticleSystem extends BaseComponentSystem {
     private EntityManager entityManager;
 
     @In
-    private WeatherManagerSystem weatherManagerSystem;
+    private WorldTime worldTime;
+
+    @In
+    private WeatherMetricsSystem metricsSystem;
+
+    private WeatherMetrics.Gauge emittersAlive;
+    private WeatherMetrics.Counter eventsHandled;
 
     private int minDownfall;
     private int maxDownfall;
 
+    @Override
+    public void initialise() {
+        emittersAlive = metricsSystem.getMetrics().gauge("particles.emittersAlive");
+        eventsHandled = metricsSystem.getMetrics().counter("events.particles");
+    }
+
     @ReceiveEvent
     public void playerRespawned(OnPlayerRespawnedEvent event, EntityRef entity) {
         if (entityIsLocalPlayer(entity) && !currentWeather.equals(SUN)) {
@@ -78,78 +129,203 @@ public class EmitWeatherParticleSystem extends BaseComponentSystem {
         }
     }
 
-    private boolean entityIsLocalPlayer(EntityRef entity) {
-        return entity.getId() == localPlayer.getCharacterEntity().getId();
+    /**
+     * Takes over the weather of the local player's cell, when it becomes available on this client.
+     *
+     * @param event the activation event
+     * @param clientEntity the client entity of a player
+     * @param state the replicated weather state
+     */
+    @ReceiveEvent
+    public void onWeatherStateActivated(OnActivatedComponent event, EntityRef clientEntity, WeatherStateComponent state) {
+        if (clientEntity.equals(localPlayer.getClientEntity())) {
+            applyWeatherState(state);
+        }
     }
 
     /**
-     * Begins the process of visual effects for rain.
-     * @param event The StartRainEvent that was received.
-     * @param worldEntity The entity that sent the event.
+     * Takes over the weather of the local player's cell, whenever it changes.
+     *
+     * @param event the change event
+     * @param clientEntity the client entity of a player
+     * @param state the replicated weather state
      */
     @ReceiveEvent
-    public void onStartRainEvent(StartRainEvent event, EntityRef worldEntity) {
-        changeWeather(RAIN);
+    public void onWeatherStateChanged(OnChangedComponent event, EntityRef clientEntity, WeatherStateComponent state) {
+        if (clientEntity.equals(localPlayer.getClientEntity())) {
+            applyWeatherState(state);
+        }
     }
 
     /**
-     * Begins the process of visual effects for snow.
-     * @param event The StartSnowEvent that was received.
-     * @param worldEntity The entity that sent the event.
+     * Takes over the settings replicated by the server, when the weather entity becomes available on this client.
+     *
+     * @param event the activation event
+     * @param worldEntity the weather entity
+     * @param config the replicated settings
      */
     @ReceiveEvent
-    public void onStartSnowEvent(StartSnowEvent event, EntityRef worldEntity) {
-        changeWeather(SNOW);
+    public void onConfigActivated(OnActivatedComponent event, EntityRef worldEntity, WeatherManagerConfigComponent config) {
+        applyConfig(config);
     }
 
     /**
-     * Begins the process of visual effects for hail.
-     * @param event The StartHailEvent that was recieved.
-     * @param worldEntity The entity that sent the event.
+     * Takes over the settings replicated by the server, whenever they change.
+     *
+     * @param event the change event
+     * @param worldEntity the weather entity
+     * @param config the replicated settings
      */
     @ReceiveEvent
-    public void onStartHailEvent(StartHailEvent event, EntityRef worldEntity) {
-        changeWeather(HAIL);
+    public void onConfigChanged(OnChangedComponent event, EntityRef worldEntity, WeatherManagerConfigComponent config) {
+        applyConfig(config);
+    }
+
+    private void applyConfig(WeatherManagerConfigComponent config) {
+        if (config.particleEmittersCount == particleEmittersCount) {
+            return;
+        }
+        particleEmittersCount = config.particleEmittersCount;
+        if (!currentWeather.equals(SUN) && localPlayer.isValid()) {
+            // respawn the emitters with the new count instead of growing or shrinking the current set
+            beginParticles();
+        }
+    }
+
+    private void applyWeatherState(WeatherStateComponent state) {
+        applyWeatherState(state.getDownfallType(), state.getDownfallAmount(), state.getWind(sampledWind));
+    }
+
+    private void applyWeatherState(DownfallCondition.DownfallType type, Severity amount, Vector2fc wind) {
+        downfallType = type;
+        severity = amount;
+        windField.setBaseWind(wind);
+
+        switch (downfallType) {
+            case RAIN:
+                changeWeather(RAIN);
+                break;
+            case SNOW:
+                changeWeather(SNOW);
+                break;
+            case HAIL:
+                changeWeather(HAIL);
+                break;
+            default:
+                changeWeather(SUN);
+                break;
+        }
     }
 
+    private boolean entityIsLocalPlayer(EntityRef entity) {
+        return entity.getId() == localPlayer.getCharacterEntity().getId();
+    }
+
+    /**
+     * Starts a cross-fade to the given weather. The emitters of the old weather are replaced step by step by emitters of
+     * the new weather in {@link #update(float)}, so the combined number of emitters stays within the steady state budget.
+     *
+     * @param targetWeather the weather to fade to
+     */
     private void changeWeather(Name targetWeather) {
-        clearEmitters();
+        eventsHandled.increment();
+        if (targetWeather.equals(currentWeather)) {
+            // same kind of downfall, only the severity or wind changed
+            prepareParticleProperties();
+            updateEmitterVelocities();
+            return;
+        }
+
+        // a transition that is still running is cut short - its remaining old emitters are dropped
+        destroyAll(fadingEmitters);
+        fadingEmitters.addAll(emitters);
+        emitters.clear();
+
         currentWeather = targetWeather;
+        particlePool = null;
+        transitionProgress = 0.0f;
 
         if (!currentWeather.equals(SUN)) {
-            beginParticles();
+            prepareParticleProperties();
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        updateWind();
+        emittersAlive.set(emitters.size() + fadingEmitters.size());
+
+        if (transitionProgress >= 1.0f) {
+            return;
+        }
+
+        transitionProgress = Math.min(1.0f, transitionProgress + delta / TRANSITION_DURATION);
+
+        int oldTarget = Math.round((1.0f - transitionProgress) * particleEmittersCount);
+        while (fadingEmitters.size() > oldTarget) {
+            fadingEmitters.remove(fadingEmitters.size() - 1).destroy();
+        }
+
+        if (!currentWeather.equals(SUN)) {
+            int newTarget = Math.min(Math.round(transitionProgress * particleEmittersCount),
+                    particleEmittersCount - fadingEmitters.size());
+            spawnEmitters(newTarget - emitters.size());
         }
     }
 
     /**
-     * Removes all particles for a sunny effect.
-     * @param event The StartSunEvent that was received.
-     * @param worldEntity The entity that sent the event.
+     * Samples the shared wind field and lets the existing emitters follow it. The velocity ranges of the emitters are
+     * changed in place, so neither emitters nor components have to be rebuilt when the wind changes.
      */
-    @ReceiveEvent
-    public void onStartSunEvent(StartSunEvent event, EntityRef worldEntity) {
-        currentWeather = SUN;
-        clearEmitters();
+    private void updateWind() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+
+        float oldX = maxVelocity.x;
+        float oldZ = maxVelocity.z;
+        applyWind(windField.sample(worldTime.getMilliseconds(), sampledWind));
+
+        if (Math.abs(oldX - maxVelocity.x) < WIND_VELOCITY_EPSILON && Math.abs(oldZ - maxVelocity.z) < WIND_VELOCITY_EPSILON) {
+            return;
+        }
+
+        updateEmitterVelocities();
+    }
+
+    private void updateEmitterVelocities() {
+        for (int i = 0; i < emitters.size(); i++) {
+            VelocityRangeGeneratorComponent velocityRange = emitters.get(i).getComponent(VelocityRangeGeneratorComponent.class);
+            if (velocityRange != null) {
+                velocityRange.minVelocity.set(minVelocity);
+                velocityRange.maxVelocity.set(maxVelocity);
+            }
+        }
     }
 
     /**
-     * Deletes the particle emitters of the specified entity.
+     * Deletes all particle emitters, including the ones of a running transition.
      */
     private void clearEmitters() {
-        emitters.forEach(EntityRef::destroy);
-        emitters.clear();
+        destroyAll(emitters);
+        destroyAll(fadingEmitters);
+        particlePool = null;
+        transitionProgress = 1.0f;
+    }
+
+    private static void destroyAll(List<EntityRef> entities) {
+        entities.forEach(EntityRef::destroy);
+        entities.clear();
     }
 
     /**
      * Determines the particle fall speed, depending on the current weather.
      */
-    private void prepareParticleProperties() {
-        DownfallCondition.DownfallType weather = weatherManagerSystem.getCurrentWeather();
-
-        if (weather != null && weatherManagerSystem.getCurrentSeverity() != null) {
+    private void prepareDownfallSpeed() {
+        if (severity != null) {
             maxDownfall = -7;
             minDownfall = -4;
-            switch (weatherManagerSystem.getCurrentSeverity()) {
+            switch (severity) {
                 case HEAVY:
                     maxDownfall = -10;
                     minDownfall = -7;
@@ -167,29 +343,56 @@ public class EmitWeatherParticleSystem extends BaseComponentSystem {
     }
 
     /**
-     * Creates new particle emitters for the local player.
+     * Creates a full set of particle emitters for the local player, without transition.
      */
     private void beginParticles() {
+        clearEmitters();
         prepareParticleProperties();
-        LocationComponent location = localPlayer.getCharacterEntity().getComponent(LocationComponent.class);
+        spawnEmitters(particleEmittersCount);
+    }
 
-        if (location != null && weatherManagerSystem.getCurrentWind() != null) {
-            if (!weatherManagerSystem.getCurrentWeather().equals(DownfallCondition.DownfallType.NONE)) {
-                float windXAbs = Math.abs(weatherManagerSystem.getCurrentWind().x * 10);
-                float windYAbs = Math.abs(weatherManagerSystem.getCurrentWind().y * 10);
-                Vector3f maxVelocity = new Vector3f(Math.min(1.5f, windXAbs), maxDownfall, Math.min(1.5f, windYAbs));
-                if (weatherManagerSystem.getCurrentWind().x < 0) {
-                    maxVelocity.x *= -1;
-                }
-                if (weatherManagerSystem.getCurrentWind().y < 0) {
-                    maxVelocity.z *= -1;
-                }
-                Vector3f minVelocity = new Vector3f(maxVelocity.x / 2, minDownfall, maxVelocity.z / 2);
+    /**
+     * Computes the particle velocity range from the current weather severity and wind.
+     */
+    private void prepareParticleProperties() {
+        prepareDownfallSpeed();
+
+        applyWind(windField.sample(worldTime.getMilliseconds(), sampledWind));
+    }
 
-                emitters.clear();
-                ParticlePool particlePool = null;
+    /**
+     * Sets the horizontal part of the particle velocity range according to the given wind.
+     *
+     * @param wind the wind to follow
+     */
+    private void applyWind(Vector2fc wind) {
+        float windXAbs = Math.abs(wind.x() * 10);
+        float windYAbs = Math.abs(wind.y() * 10);
+        maxVelocity.set(Math.min(1.5f, windXAbs), maxDownfall, Math.min(1.5f, windYAbs));
+        if (wind.x() < 0) {
+            maxVelocity.x *= -1;
+        }
+        if (wind.y() < 0) {
+            maxVelocity.z *= -1;
+        }
+        minVelocity.set(maxVelocity.x / 2, minDownfall, maxVelocity.z / 2);
+    }
+
+    /**
+     * Creates new particle emitters of the current weather for the local player.
+     *
+     * @param count the number of emitters to add
+     */
+    private void spawnEmitters(int count) {
+        if (count <= 0 || currentWeather.equals(SUN)) {
+            return;
+        }
+
+        LocationComponent location = localPlayer.getCharacterEntity().getComponent(LocationComponent.class);
 
-                for (int i = 0; i < PARTICLE_EMITTERS_COUNT; i++) {
+        if (location != null) {
+            if (!downfallType.equals(DownfallCondition.DownfallType.NONE)) {
+                for (int i = 0; i < count; i++) {
                     EntityBuilder emitterBuilder = entityManager.newBuilder(currentWeather.toString());
                     emitterBuilder.getComponent(VelocityRangeGeneratorComponent.class)
                             .minVelocity.set(minVelocity.x, minVelocity.y, minVelocity.z);
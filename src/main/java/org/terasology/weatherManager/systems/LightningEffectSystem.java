@@ -0,0 +1,95 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.systems;
+
+import org.joml.Vector3f;
+import org.terasology.engine.entitySystem.entity.EntityBuilder;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.rendering.logic.LightComponent;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.weatherManager.events.LightningStrikeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows a short flash of light where lightning strikes, see {@link LightningStrikeEvent}.
+ * <p>
+ * Each flash is a temporary point light above the struck block, which is destroyed again after {@link #FLASH_DURATION}.
+ */
+@RegisterSystem(RegisterMode.CLIENT)
+public class LightningEffectSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /**
+     * Time in seconds a flash lasts.
+     */
+    private static final float FLASH_DURATION = 0.25f;
+
+    /**
+     * Maximum number of flashes at the same time, further strikes are not shown until one has ended.
+     */
+    private static final int MAX_FLASHES = 8;
+
+    /**
+     * Height of the light above the struck block.
+     */
+    private static final float FLASH_HEIGHT = 8f;
+
+    /**
+     * Distance in blocks up to which a flash lights up its surroundings.
+     */
+    private static final float FLASH_RANGE = 48f;
+
+    @In
+    private EntityManager entityManager;
+
+    private final List<EntityRef> flashes = new ArrayList<>();
+    private final List<Float> remainingTimes = new ArrayList<>();
+
+    @ReceiveEvent
+    public void onLightningStrike(LightningStrikeEvent event, EntityRef worldEntity) {
+        if (flashes.size() >= MAX_FLASHES) {
+            return;
+        }
+        LightComponent light = new LightComponent();
+        light.lightColorDiffuse.set(0.85f, 0.9f, 1f, 1f);
+        light.lightColorAmbient.set(0.85f, 0.9f, 1f, 1f);
+        light.lightAttenuationRange = FLASH_RANGE;
+
+        Vector3f position = new Vector3f(event.getPosition()).add(0, FLASH_HEIGHT, 0);
+        EntityBuilder builder = entityManager.newBuilder();
+        builder.addComponent(new LocationComponent(position));
+        builder.addComponent(light);
+        builder.setPersistent(false);
+        flashes.add(builder.build());
+        remainingTimes.add(FLASH_DURATION);
+    }
+
+    @Override
+    public void update(float delta) {
+        for (int i = flashes.size() - 1; i >= 0; i--) {
+            float remaining = remainingTimes.get(i) - delta;
+            if (remaining <= 0) {
+                flashes.remove(i).destroy();
+                remainingTimes.remove(i);
+            } else {
+                remainingTimes.set(i, remaining);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        flashes.forEach(EntityRef::destroy);
+        flashes.clear();
+        remainingTimes.clear();
+    }
+}
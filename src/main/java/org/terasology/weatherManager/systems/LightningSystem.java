@@ -0,0 +1,290 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.systems;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.OnChangedBlock;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.event.BeforeChunkUnload;
+import org.terasology.engine.world.chunks.event.OnChunkLoaded;
+import org.terasology.engine.world.time.WorldTime;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.weatherManager.components.WeatherBase;
+import org.terasology.weatherManager.events.LightningStrikeEvent;
+import org.terasology.weatherManager.metrics.WeatherMetrics;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+import org.terasology.weatherManager.weather.WeatherCell;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lets lightning strike in thunderstorms.
+ * <p>
+ * Every active weather cell decides on its own whether it thunders, from the same condition that is presented to the
+ * players in it, see {@link WeatherManagerSystem#getCondition(WeatherCell)}. So there is no lightning out of a sky that
+ * a player sees as clear. Strikes are scheduled independently for every cell with thunder, as a Poisson process whose
+ * rate grows with the amount of downfall of the cell.
+ * <p>
+ * The struck column is picked at random within the cell. Its surface is looked up in a heightmap of the topmost solid
+ * block per column of every loaded chunk, which is filled when a chunk is loaded and kept up to date on block changes,
+ * so a strike neither scans blocks nor runs the world generator. Block effects of all strikes of a frame are written in
+ * one batch, and the clients get one {@link LightningStrikeEvent} per strike.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class LightningSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /**
+     * Mean time in milliseconds between two strikes in a cell with heavy downfall.
+     */
+    private static final float MEAN_STRIKE_INTERVAL = 4000f;
+
+    /**
+     * Maximum number of strikes per cell and frame, in case the world time jumped ahead.
+     */
+    private static final int MAX_STRIKES_PER_UPDATE = 4;
+
+    /**
+     * Maximum distance in blocks between the surface of a struck column and the elevation at the center of its cell.
+     */
+    private static final int MAX_SURFACE_OFFSET = 64;
+
+    /**
+     * Entry of the heightmap for a column of a chunk without any solid block.
+     */
+    private static final short NO_SURFACE = -1;
+
+    /**
+     * Chance that a strike sets burnable ground on fire.
+     */
+    private static final float FIRE_CHANCE = 0.3f;
+
+    // block effects of a strike, by uri
+    private static final String SAND = "CoreAssets:Sand";
+    private static final String GLASS = "CoreAssets:Glass";
+    private static final String GRASS = "CoreAssets:Grass";
+    private static final String FIRE = "CoreAssets:Fire";
+
+    @In
+    private RegionalWeatherSystem regionalWeatherSystem;
+
+    @In
+    private WeatherManagerSystem weatherManagerSystem;
+
+    @In
+    private WorldProvider worldProvider;
+
+    @In
+    private ChunkProvider chunkProvider;
+
+    @In
+    private BlockManager blockManager;
+
+    @In
+    private EntityManager entityManager;
+
+    @In
+    private WorldTime worldTime;
+
+    @In
+    private WeatherMetricsSystem metricsSystem;
+
+    private EntityRef weatherEntity = EntityRef.NULL;
+    private final FastRandom rand = new FastRandom();
+    private final Map<Vector3ic, Block> effects = new HashMap<>();
+    private final Vector3i strikePos = new Vector3i();
+
+    // the height of the topmost solid block in each column of each loaded chunk, relative to the chunk
+    private final Map<Vector3ic, short[]> surfaces = new HashMap<>();
+    private final Vector3i chunkPos = new Vector3i();
+
+    private Block air;
+    private Block sand;
+    private Block glass;
+    private Block grass;
+    private Block fire;
+
+    private WeatherMetrics.Counter strikes;
+    private WeatherMetrics.Counter blocksWritten;
+
+    @Override
+    public void postBegin() {
+        air = blockManager.getBlock("engine:air");
+        sand = blockManager.getBlock(SAND);
+        glass = blockManager.getBlock(GLASS);
+        grass = blockManager.getBlock(GRASS);
+        fire = blockManager.getBlock(FIRE);
+
+        WeatherMetrics metrics = metricsSystem.getMetrics();
+        strikes = metrics.counter("lightning.strikes");
+        blocksWritten = metrics.counter("lightning.blocksWritten");
+    }
+
+    @ReceiveEvent
+    public void onChunkLoaded(OnChunkLoaded event, EntityRef worldEntity) {
+        Chunk chunk = chunkProvider.getChunk(event.getChunkPos());
+        if (chunk == null) {
+            return;
+        }
+        short[] heights = new short[Chunks.SIZE_X * Chunks.SIZE_Z];
+        for (int z = 0; z < Chunks.SIZE_Z; z++) {
+            for (int x = 0; x < Chunks.SIZE_X; x++) {
+                heights[x + z * Chunks.SIZE_X] = findTopmostSolid(chunk, x, Chunks.SIZE_Y - 1, z);
+            }
+        }
+        surfaces.put(new Vector3i(event.getChunkPos()), heights);
+    }
+
+    @ReceiveEvent
+    public void onChunkUnload(BeforeChunkUnload event, EntityRef worldEntity) {
+        surfaces.remove(event.getChunkPos());
+    }
+
+    /**
+     * Keeps the heightmap up to date. Only the changed column of its chunk is looked at, and only scanned when its
+     * topmost solid block was removed.
+     *
+     * @param event the change event
+     * @param blockEntity the entity of the changed block
+     */
+    @ReceiveEvent
+    public void onBlockChanged(OnChangedBlock event, EntityRef blockEntity) {
+        Vector3ic pos = event.getBlockPosition();
+        short[] heights = surfaces.get(toChunkPos(pos.x(), pos.y(), pos.z()));
+        if (heights == null) {
+            return;
+        }
+        int x = Math.floorMod(pos.x(), Chunks.SIZE_X);
+        int y = Math.floorMod(pos.y(), Chunks.SIZE_Y);
+        int z = Math.floorMod(pos.z(), Chunks.SIZE_Z);
+        int column = x + z * Chunks.SIZE_X;
+        if (!event.getNewType().equals(air)) {
+            heights[column] = (short) Math.max(heights[column], y);
+        } else if (heights[column] == y) {
+            Chunk chunk = chunkProvider.getChunk(chunkPos);
+            heights[column] = chunk != null ? findTopmostSolid(chunk, x, y, z) : NO_SURFACE;
+        }
+    }
+
+    private short findTopmostSolid(Chunk chunk, int x, int fromY, int z) {
+        for (int y = fromY; y >= 0; y--) {
+            if (!chunk.getBlock(x, y, z).equals(air)) {
+                return (short) y;
+            }
+        }
+        return NO_SURFACE;
+    }
+
+    private Vector3i toChunkPos(int x, int y, int z) {
+        return chunkPos.set(Math.floorDiv(x, Chunks.SIZE_X), Math.floorDiv(y, Chunks.SIZE_Y), Math.floorDiv(z, Chunks.SIZE_Z));
+    }
+
+    @Override
+    public void update(float delta) {
+        long time = worldTime.getMilliseconds();
+        for (WeatherCell cell : regionalWeatherSystem.getActiveCells()) {
+            MutableWeatherCondition condition = weatherManagerSystem.getCondition(cell);
+            if (!condition.withThunder) {
+                cell.setNextStrikeTime(Long.MAX_VALUE);
+                continue;
+            }
+            float meanInterval = MEAN_STRIKE_INTERVAL / condition.downfallAmount.getNumericValue();
+            if (cell.getNextStrikeTime() == Long.MAX_VALUE) {
+                cell.setNextStrikeTime(time + nextInterval(meanInterval));
+            }
+            int count = 0;
+            while (time >= cell.getNextStrikeTime()) {
+                if (count++ < MAX_STRIKES_PER_UPDATE) {
+                    strike(cell);
+                }
+                cell.setNextStrikeTime(cell.getNextStrikeTime() + nextInterval(meanInterval));
+            }
+        }
+
+        if (!effects.isEmpty()) {
+            worldProvider.setBlocks(effects);
+            blocksWritten.add(effects.size());
+            effects.clear();
+        }
+    }
+
+    /**
+     * @return the time until the next event of a Poisson process with the given mean interval
+     */
+    private long nextInterval(float meanInterval) {
+        return 1 + (long) (-Math.log(1 - rand.nextFloat()) * meanInterval);
+    }
+
+    private void strike(WeatherCell cell) {
+        int x = cell.getCellX() * RegionalWeatherSystem.CELL_SIZE + rand.nextInt(RegionalWeatherSystem.CELL_SIZE);
+        int z = cell.getCellZ() * RegionalWeatherSystem.CELL_SIZE + rand.nextInt(RegionalWeatherSystem.CELL_SIZE);
+        if (!findGround(cell, x, z, strikePos)) {
+            return;
+        }
+        strikes.increment();
+
+        Block ground = worldProvider.getBlock(strikePos);
+        if (ground.equals(sand) && glass != null) {
+            effects.put(new Vector3i(strikePos), glass);
+        } else if (ground.equals(grass) && fire != null && rand.nextFloat() < FIRE_CHANCE) {
+            effects.put(new Vector3i(strikePos.x, strikePos.y + 1, strikePos.z), fire);
+        }
+
+        if (!weatherEntity.exists()) {
+            // the weather entity is replicated to all clients, which makes it the natural target for broadcasts
+            for (EntityRef entity : entityManager.getEntitiesWith(WeatherBase.class)) {
+                weatherEntity = entity;
+            }
+        }
+        weatherEntity.send(new LightningStrikeEvent(strikePos));
+    }
+
+    /**
+     * Finds the topmost solid block of a column that is exposed to the sky, within range of the elevation of the cell.
+     * The chunks in range are looked up from the top, so this takes a few map lookups and a single sunlight query.
+     *
+     * @return whether ground was found, which is then stored in dest
+     */
+    private boolean findGround(WeatherCell cell, int x, int z, Vector3i dest) {
+        int reference = cell.getElevation();
+        if (reference == WeatherCell.UNKNOWN_ELEVATION) {
+            return false;
+        }
+        int top = reference + MAX_SURFACE_OFFSET;
+        int bottom = reference - MAX_SURFACE_OFFSET;
+        int column = Math.floorMod(x, Chunks.SIZE_X) + Math.floorMod(z, Chunks.SIZE_Z) * Chunks.SIZE_X;
+        int lowestChunkY = Math.floorDiv(bottom, Chunks.SIZE_Y);
+        for (int chunkY = Math.floorDiv(top, Chunks.SIZE_Y); chunkY >= lowestChunkY; chunkY--) {
+            short[] heights = surfaces.get(toChunkPos(x, chunkY * Chunks.SIZE_Y, z));
+            if (heights == null) {
+                // the column is not fully loaded
+                return false;
+            }
+            if (heights[column] != NO_SURFACE) {
+                int y = chunkY * Chunks.SIZE_Y + heights[column];
+                if (y < bottom || y > top || worldProvider.getSunlight(x, y + 1, z) != Chunks.MAX_SUNLIGHT) {
+                    return false;
+                }
+                dest.set(x, y, z);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,19 +2,17 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.weatherManager.systems;
 
+import com.google.common.base.Preconditions;
 import org.joml.Vector2f;
+import org.joml.Vector2fc;
 import org.terasology.engine.utilities.random.FastRandom;
 import org.terasology.engine.utilities.random.Random;
-import org.terasology.markovChains.RawMarkovChain;
 import org.terasology.markovChains.dataStructures.TransitionMatrix;
 import org.terasology.math.TeraMath;
 import org.terasology.weatherManager.weather.ConditionAndDuration;
 import org.terasology.weatherManager.weather.DownfallCondition;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
 import org.terasology.weatherManager.weather.Severity;
-import org.terasology.weatherManager.weather.WeatherCondition;
-
-import java.util.LinkedList;
-import java.util.List;
 
 /**
  * WeatherCondition provider using Markov Chain. Currently the only implementation for {@link WeatherConditionProvider} Created by Linus on
@@ -22,14 +20,7 @@ import java.util.List;
  */
 public class MarkovChainWeatherGenerator implements WeatherConditionProvider {
 
-    private static final List<Severity> SEVERITIES = new LinkedList<Severity>() {
-        {
-            addLast(Severity.NONE);
-            addLast(Severity.LIGHT);
-            addLast(Severity.MODERATE);
-            addLast(Severity.HEAVY);
-        }
-    };
+    private static final Severity[] SEVERITIES = Severity.values();
 
     private static final TransitionMatrix CLOUDINESS_TRANSITION_MATRIX =
             new TransitionMatrix(2, Severity.values().length) {
@@ -113,21 +104,81 @@ public class MarkovChainWeatherGenerator implements WeatherConditionProvider {
                 }
             };
 
-    private static final Vector2f ANGLE_REFERENCE_VECTOR = new Vector2f(1, 0);
+    /**
+     * Number of steps used to produce a believable history from the initial state.
+     */
+    private static final int WARM_UP_STEPS = 8;
 
-    private final RawMarkovChain cloudinessGenerator =
-            new RawMarkovChain(CLOUDINESS_TRANSITION_MATRIX);
-    private final RawMarkovChain precipitationGenerator =
-            new RawMarkovChain(PRECIPITATION_TRANSITION_MATRIX);
+    /**
+     * Number of possible chain states, see {@link #packChainState(int, int, int, int)}.
+     */
+    private static final int CHAIN_STATES = 256;
 
-    private int[] cloudinessHistory = new int[2];
-    private int[] precipitationHistory = new int[2];
-    private Vector2f previousWind = new Vector2f();
+    /**
+     * The wind direction is the sum of the random turns of this many most recent steps.
+     */
+    private static final int WIND_WINDOW = 16;
+
+    // the turns are summed as integers in units of this angle, so that the sum does not depend on the order of additions
+    private static final double WIND_ANGLE_UNIT = 2 * Math.PI / 65536;
+    private static final double WIND_TURN_STD_DEV = Math.PI / 6;
 
+    // slots of the random values that are used for each step in seekable mode
+    private static final int CLOUD_SLOT = 0;
+    private static final int PRECIPITATION_SLOT = 1;
+    private static final int WIND_MAGNITUDE_SLOT = 2;
+    private static final int WIND_ANGLE_SLOT = 4;
+    private static final int DURATION_SLOT = 6;
+    private static final int THUNDER_SLOT = 8;
+
+    /**
+     * Chance that a condition with the downfall amount of the same ordinal comes with thunder.
+     */
+    private static final float[] THUNDER_CHANCE = {0, 0, 0.15f, 0.5f};
+
+    // the matrices are evaluated only once, sampling from the tables is allocation free
+    private static final CumulativeTransitionTable CLOUDINESS_TABLE =
+            new CumulativeTransitionTable(CLOUDINESS_TRANSITION_MATRIX, 2, Severity.values().length);
+    private static final CumulativeTransitionTable PRECIPITATION_TABLE =
+            new CumulativeTransitionTable(PRECIPITATION_TRANSITION_MATRIX, 4, Severity.values().length);
+
+    // the last two states of the cloudiness and precipitation chains, see packChainState()
+    private int chainState;
+    private final Vector2f previousWind = new Vector2f();
+
+    // ring buffer of the turns of the last WIND_WINDOW steps, indexed by the step index, and their sum
+    private final int[] windTurns = new int[WIND_WINDOW];
+    private int windAngle;
+
+    // reused when deriving the chain state at a checkpoint
+    private final int[] coupledStates = new int[CHAIN_STATES];
+    private final boolean[] coupledStatePresent = new boolean[CHAIN_STATES];
+
+    // reused by the object based getNext()
+    private final MutableWeatherCondition scratch = new MutableWeatherCondition();
+
+    // ring buffer of conditions that have been generated for a forecast, but not yet consumed
+    private MutableWeatherCondition[] lookahead = new MutableWeatherCondition[0];
+    private int lookaheadStart;
+    private int lookaheadSize;
+
+    // only used in sequential mode, null in seekable mode
     private final Random randomNumberGenerator;
 
+    private final long seed;
+
+    // interval between two checkpoints in seekable mode, 0 in sequential mode
+    private final int checkpointInterval;
+
+    // index of the next step that will be generated (this includes steps in the lookahead buffer)
+    private long index;
+
+    // chain state after the last condition that was returned by getNext(), see packChainState()
+    private int consumedChainState;
+    private final Vector2f consumedWind = new Vector2f();
+
     //Default mean duration of each generated weatherCondition.
-    private final float meanDuration;
+    private float meanDuration;
 
     /**
      * Creates a new Weather Generator which generates random weather using Markov Chain
@@ -137,18 +188,267 @@ public class MarkovChainWeatherGenerator implements WeatherConditionProvider {
      */
     public MarkovChainWeatherGenerator(final long seed, final float meanDuration) {
         this.meanDuration = meanDuration;
+        this.seed = seed;
+        this.checkpointInterval = 0;
         this.randomNumberGenerator = new FastRandom(seed);
         //weatherMarkovChain = new MarkovChain<WeatherCondition>(Arrays.asList(WeatherCondition.values()),
         // FIRST_ORDER_CONDITION_TRANSITION_MATRIX, randomNumberGenerator);
 
-        previousWind.set(1.0f, 0.0f);
-
         // warm up: produce a believable initial history using the transition matrix;
-        for (int i = 0; i < 8; i++) {
-            getNext();
+        for (int i = 0; i < WARM_UP_STEPS; i++) {
+            generate(scratch);
+        }
+        index = 0;
+        markConsumed();
+    }
+
+    /**
+     * Creates a seekable Weather Generator. The random values of each step are derived from the seed and the index of the
+     * step. This makes it possible to jump to any index with {@link #seek(long)} without generating all conditions before
+     * it.
+     * <p>
+     * Seeking derives the chain state at the checkpoint before the target by coupling from the past: the steps just
+     * before the checkpoint are replayed from every possible chain state with the same random values, going further back
+     * until all of them end in the same state. That state is exactly the one the sequential generation reaches, so nothing
+     * is reset at a checkpoint and seeking returns the same conditions as generating one after the other. The wind
+     * direction is the sum of the random turns of the last few steps and only depends on the index.
+     *
+     * @param seed the seed to control the random weather generation
+     * @param meanDuration Default mean duration of each generated weatherCondition
+     * @param checkpointInterval the number of steps between two checkpoints, must be larger than the warm-up
+     */
+    public MarkovChainWeatherGenerator(final long seed, final float meanDuration, final int checkpointInterval) {
+        Preconditions.checkArgument(checkpointInterval > WARM_UP_STEPS,
+                "The checkpoint interval must be larger than %s", WARM_UP_STEPS);
+
+        this.meanDuration = meanDuration;
+        this.seed = seed;
+        this.checkpointInterval = checkpointInterval;
+        this.randomNumberGenerator = null;
+
+        anchor(0);
+        markConsumed();
+    }
+
+    /**
+     * @return true if this generator supports {@link #seek(long)}
+     */
+    public boolean isSeekable() {
+        return checkpointInterval > 0;
+    }
+
+    /**
+     * @return the index of the condition that will be returned by the next call to {@link #getNext()}
+     */
+    public long getIndex() {
+        return index - lookaheadSize;
+    }
+
+    /**
+     * Jumps to the given index, so that the next call to {@link #getNext()} returns the condition with that index.
+     * <p>
+     * Unless the target lies ahead of the current index within the same checkpoint interval, the chain state at the
+     * checkpoint is derived first, see {@link #anchor(long)}. That usually takes a few dozen coupled steps, as the chains
+     * tend to forget their state quickly, followed by at most one checkpoint interval of steps. The coupled window doubles
+     * until the chains coalesce and each coupled step costs up to {@value #CHAIN_STATES} chain updates, so in the worst
+     * case the cost grows with the target index.
+     *
+     * @param targetIndex the index to jump to
+     */
+    public void seek(long targetIndex) {
+        Preconditions.checkState(isSeekable(), "Only a generator in seekable mode can seek");
+        Preconditions.checkArgument(targetIndex >= 0, "Index must not be negative");
+
+        lookaheadStart = 0;
+        lookaheadSize = 0;
+
+        long checkpoint = targetIndex - targetIndex % checkpointInterval;
+        if (index < checkpoint || index > targetIndex) {
+            anchor(checkpoint);
+        }
+        while (index < targetIndex) {
+            generate(scratch);
+        }
+        markConsumed();
+    }
+
+    /**
+     * @return the seed of this generator
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the history of the Markov chains after the last condition returned by {@link #getNext()}, packed into a
+     * single int. Together with {@link #getIndex()} this fully describes the state of a seekable generator.
+     *
+     * @return the packed chain state
+     */
+    public int getChainState() {
+        return consumedChainState;
+    }
+
+    /**
+     * @return the wind of the last condition returned by {@link #getNext()}
+     */
+    public Vector2fc getWind() {
+        return consumedWind;
+    }
+
+    /**
+     * Restores a state previously obtained from {@link #getIndex()} and {@link #getChainState()}. The generator continues
+     * with exactly the sequence it would have produced at that point. The last wind is derived from both, like all winds.
+     *
+     * @param restoredIndex the index of the next condition
+     * @param chainState the packed history of the Markov chains
+     */
+    public void restore(long restoredIndex, int chainState) {
+        Preconditions.checkState(isSeekable(), "Only a generator in seekable mode can be restored");
+        Preconditions.checkArgument(restoredIndex >= 0, "Index must not be negative");
+
+        lookaheadStart = 0;
+        lookaheadSize = 0;
+
+        this.chainState = chainState & (CHAIN_STATES - 1);
+        index = restoredIndex;
+        resetWindTurns();
+
+        // the wind of the step before, whose turn is the last one in the window
+        double magnitude = CounterRandom.nextGaussian(seed, index - 1, WIND_MAGNITUDE_SLOT,
+                expectedWindMagnitude(this.chainState), windMagnitudeStdDev(this.chainState));
+        setWind(previousWind, magnitude);
+        markConsumed();
+    }
+
+    /**
+     * Packs two states of the cloudiness chain and two states of the precipitation chain into 8 bits, oldest first.
+     */
+    private static int packChainState(int cloudPrevious, int cloudCurrent, int precipitationPrevious, int precipitationCurrent) {
+        return cloudPrevious << 6 | cloudCurrent << 4 | precipitationPrevious << 2 | precipitationCurrent;
+    }
+
+    /**
+     * Records the current chain state as consumed. Only valid if the lookahead buffer is empty.
+     */
+    private void markConsumed() {
+        consumedChainState = chainState;
+        consumedWind.set(previousWind);
+    }
+
+    /**
+     * Advances the consumed chain state by a condition taken from the lookahead buffer.
+     */
+    private void markConsumed(MutableWeatherCondition condition) {
+        consumedChainState = packChainState((consumedChainState >>> 4) & 3, condition.cloudiness.ordinal(),
+                consumedChainState & 3, condition.downfallAmount.ordinal());
+        consumedWind.set(condition.wind);
+    }
+
+    /**
+     * Derives the state of the sequence at a checkpoint. The sequence starts with a warm-up from a fixed initial state
+     * before index 0. At later checkpoints the steps are replayed from the first index from which all chain states
+     * coalesce, so the initial state there does not matter.
+     */
+    private void anchor(long checkpoint) {
+        long start = -WARM_UP_STEPS;
+        for (long window = WARM_UP_STEPS; window < checkpoint; window *= 2) {
+            if (coalesces(checkpoint - window, checkpoint)) {
+                start = checkpoint - window;
+                break;
+            }
+        }
+
+        chainState = 0;
+        index = start;
+        resetWindTurns();
+        while (index < checkpoint) {
+            generate(scratch);
         }
     }
 
+    /**
+     * Checks whether the steps in the given range lead to the same chain state, independent of the state before them.
+     */
+    private boolean coalesces(long from, long to) {
+        int count = CHAIN_STATES;
+        for (int i = 0; i < CHAIN_STATES; i++) {
+            coupledStates[i] = i;
+        }
+        for (long step = from; step < to && count > 1; step++) {
+            float cloudRandom = CounterRandom.nextFloat(seed, step, CLOUD_SLOT);
+            float precipitationRandom = CounterRandom.nextFloat(seed, step, PRECIPITATION_SLOT);
+
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                int next = nextChainState(coupledStates[i], cloudRandom, precipitationRandom);
+                if (!coupledStatePresent[next]) {
+                    coupledStatePresent[next] = true;
+                    coupledStates[distinct++] = next;
+                }
+            }
+            for (int i = 0; i < distinct; i++) {
+                coupledStatePresent[coupledStates[i]] = false;
+            }
+            count = distinct;
+        }
+        return count == 1;
+    }
+
+    /**
+     * Advances the cloudiness and the precipitation chain by one step.
+     *
+     * @param state the packed chain state, see {@link #packChainState(int, int, int, int)}
+     * @return the packed chain state after the step
+     */
+    private static int nextChainState(int state, float cloudRandom, float precipitationRandom) {
+        int cloudPrevious = (state >>> 6) & 3;
+        int cloudCurrent = (state >>> 4) & 3;
+        int precipitationPrevious = (state >>> 2) & 3;
+        int precipitationCurrent = state & 3;
+
+        int cloudRow = CLOUDINESS_TABLE.row(CLOUDINESS_TABLE.row(cloudPrevious), cloudCurrent);
+        int nextCloud = CLOUDINESS_TABLE.sample(cloudRow, cloudRandom);
+
+        int precipitationRow = PRECIPITATION_TABLE.row(cloudCurrent);
+        precipitationRow = PRECIPITATION_TABLE.row(precipitationRow, nextCloud);
+        precipitationRow = PRECIPITATION_TABLE.row(precipitationRow, precipitationPrevious);
+        precipitationRow = PRECIPITATION_TABLE.row(precipitationRow, precipitationCurrent);
+        int nextPrecipitation = PRECIPITATION_TABLE.sample(precipitationRow, precipitationRandom);
+
+        return packChainState(cloudCurrent, nextCloud, precipitationCurrent, nextPrecipitation);
+    }
+
+    /**
+     * Recomputes the wind turns of the steps before the current index. Only valid in seekable mode.
+     */
+    private void resetWindTurns() {
+        windAngle = 0;
+        for (long step = index - WIND_WINDOW; step < index; step++) {
+            int turn = quantizeTurn(CounterRandom.nextGaussian(seed, step, WIND_ANGLE_SLOT, 0.0, WIND_TURN_STD_DEV));
+            windTurns[(int) Math.floorMod(step, (long) WIND_WINDOW)] = turn;
+            windAngle += turn;
+        }
+    }
+
+    private static int quantizeTurn(double turn) {
+        return (int) Math.round(turn / WIND_ANGLE_UNIT);
+    }
+
+    private float randomFloat(int slot) {
+        if (randomNumberGenerator != null) {
+            return randomNumberGenerator.nextFloat();
+        }
+        return CounterRandom.nextFloat(seed, index, slot);
+    }
+
+    private double randomGaussian(int slot, double mean, double stdDev) {
+        if (randomNumberGenerator != null) {
+            return randomNumberGenerator.nextGaussian(mean, stdDev);
+        }
+        return CounterRandom.nextGaussian(seed, index, slot, mean, stdDev);
+    }
+
     private static boolean isMonotonic(int first, int second, int third) {
         return (first <= second && second <= third)
                 || (first >= second && second >= third);
@@ -165,63 +465,175 @@ public class MarkovChainWeatherGenerator implements WeatherConditionProvider {
      * @return a random WindCondition represented as {@link Vector2f}
      */
     public Vector2f nextWindCondition() {
-        float expectedMagnitude = ((cloudinessHistory[1] + precipitationHistory[1]) / 8.0f) * 0.75f + previousWind.length() * 0.25f;
-        float stdDev = (cloudinessHistory[1] / 8.0f);
+        return nextWindCondition(new Vector2f());
+    }
+
+    /**
+     * Generates the next random WindCondition using Markov Chain, without allocating. The magnitude follows the current
+     * and the previous chain state, the direction turns randomly, see {@link #WIND_WINDOW}.
+     *
+     * @param dest will hold the result, may be the same instance as the previous wind
+     * @return dest
+     */
+    private Vector2f nextWindCondition(Vector2f dest) {
+        double magnitude = randomGaussian(WIND_MAGNITUDE_SLOT, expectedWindMagnitude(chainState), windMagnitudeStdDev(chainState));
+
+        int turn = quantizeTurn(randomGaussian(WIND_ANGLE_SLOT, 0.0, WIND_TURN_STD_DEV));
+        int slot = (int) Math.floorMod(index, (long) WIND_WINDOW);
+        windAngle += turn - windTurns[slot];
+        windTurns[slot] = turn;
 
-        float nextMagnitude = Math.max((float) TeraMath.fastAbs(TeraMath.fastAbs(randomNumberGenerator.nextGaussian(expectedMagnitude,
-                stdDev))), 0.001f);
-        float newAngle = (float) randomNumberGenerator.nextGaussian(0.0, TeraMath.PI * 0.25f)
-                + previousWind.angle(ANGLE_REFERENCE_VECTOR);
+        return setWind(dest, magnitude);
+    }
 
-        return new Vector2f((float) Math.cos(newAngle) * nextMagnitude,
-                (float) Math.sin(newAngle) * nextMagnitude
+    /**
+     * Sets the wind from the current sum of turns and the given random magnitude.
+     */
+    private Vector2f setWind(Vector2f dest, double magnitude) {
+        float nextMagnitude = Math.max((float) TeraMath.fastAbs(magnitude), 0.001f);
+        double angle = windAngle * WIND_ANGLE_UNIT;
+
+        return dest.set((float) Math.cos(angle) * nextMagnitude,
+                (float) Math.sin(angle) * nextMagnitude
         );
     }
 
+    private static float expectedWindMagnitude(int state) {
+        int cloudPrevious = (state >>> 6) & 3;
+        int cloudCurrent = (state >>> 4) & 3;
+        int precipitationPrevious = (state >>> 2) & 3;
+        int precipitationCurrent = state & 3;
+
+        return ((cloudCurrent + precipitationCurrent) / 8.0f) * 0.75f
+                + ((cloudPrevious + precipitationPrevious) / 8.0f) * 0.25f;
+    }
+
+    private static float windMagnitudeStdDev(int state) {
+        int cloudCurrent = (state >>> 4) & 3;
+        return cloudCurrent / 8.0f;
+    }
+
+    public float getMeanDuration() {
+        return meanDuration;
+    }
+
+    /**
+     * Changes the mean duration of the conditions generated from now on. Conditions already generated for a forecast
+     * keep their duration.
+     *
+     * @param meanDuration the new mean duration
+     */
+    public void setMeanDuration(float meanDuration) {
+        this.meanDuration = meanDuration;
+    }
+
     @Override
     public String toDisplayString() {
         return "Markov Chain Weather Generator";
     }
 
-    private float randomDuration(WeatherCondition condition) {
-        double duration = Math.abs(randomNumberGenerator.nextGaussian(meanDuration, meanDuration / 2));
+    private float randomDuration() {
+        double duration = Math.abs(randomGaussian(DURATION_SLOT, meanDuration, meanDuration / 2));
 
         return (float) duration;
     }
 
     @Override
     public ConditionAndDuration getNext() {
-        // update cloud chain
-        int nextCloud =
-                cloudinessGenerator.getNext(randomNumberGenerator.nextFloat(), cloudinessHistory[0], cloudinessHistory[1]);
+        return getNext(scratch).toConditionAndDuration();
+    }
 
-        cloudinessHistory[0] = cloudinessHistory[1];
-        cloudinessHistory[1] = nextCloud;
+    /**
+     * Writes the next condition into a caller-provided object. In contrast to {@link #getNext()} this does not allocate
+     * any memory.
+     *
+     * @param out will hold the next condition
+     * @return out
+     */
+    @Override
+    public MutableWeatherCondition getNext(MutableWeatherCondition out) {
+        if (lookaheadSize > 0) {
+            out.set(lookahead[lookaheadStart]);
+            lookaheadStart = (lookaheadStart + 1) % lookahead.length;
+            lookaheadSize--;
+            markConsumed(out);
+            return out;
+        }
+        generate(out);
+        markConsumed();
+        return out;
+    }
 
+    @Override
+    public ConditionAndDuration[] forecast(int n) {
+        fillLookahead(n);
 
-        // update precipitation chain
-        int nextPrecipitation =
-                precipitationGenerator.getNext(randomNumberGenerator.nextFloat(), cloudinessHistory[0], cloudinessHistory[1],
-                        precipitationHistory[0], precipitationHistory[1]);
+        ConditionAndDuration[] result = new ConditionAndDuration[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = lookahead[(lookaheadStart + i) % lookahead.length].toConditionAndDuration();
+        }
+        return result;
+    }
 
-        precipitationHistory[0] = precipitationHistory[1];
-        precipitationHistory[1] = nextPrecipitation;
+    /**
+     * Looks ahead at the next conditions without consuming them. Once the internal buffer has grown to the requested size,
+     * this does not allocate any memory.
+     *
+     * @param out will hold the next {@code out.length} conditions
+     * @return out
+     */
+    @Override
+    public MutableWeatherCondition[] forecast(MutableWeatherCondition[] out) {
+        fillLookahead(out.length);
 
+        for (int i = 0; i < out.length; i++) {
+            out[i].set(lookahead[(lookaheadStart + i) % lookahead.length]);
+        }
+        return out;
+    }
 
-        // update wind state
-        previousWind.set(nextWindCondition());
+    /**
+     * Makes sure that at least n conditions have been generated ahead.
+     */
+    private void fillLookahead(int n) {
+        if (n > lookahead.length) {
+            MutableWeatherCondition[] grown = new MutableWeatherCondition[Math.max(n, lookahead.length * 2)];
+            for (int i = 0; i < grown.length; i++) {
+                grown[i] = i < lookaheadSize
+                        ? lookahead[(lookaheadStart + i) % lookahead.length]
+                        : new MutableWeatherCondition();
+            }
+            lookahead = grown;
+            lookaheadStart = 0;
+        }
 
-        // now put generated values into a WeatherCondition object
-        DownfallCondition downfallCondition =
-                nextPrecipitation == 0
-                        ? DownfallCondition.NO_DOWNFALL
-                        : DownfallCondition.get(SEVERITIES.get(nextPrecipitation), DownfallCondition.DownfallType.RAIN, false);
+        while (lookaheadSize < n) {
+            generate(lookahead[(lookaheadStart + lookaheadSize) % lookahead.length]);
+            lookaheadSize++;
+        }
+    }
 
-        final WeatherCondition condition = new WeatherCondition(Severity.values()[nextCloud], downfallCondition, previousWind);
+    /**
+     * Advances the Markov chains and writes the generated condition into the given object.
+     */
+    private MutableWeatherCondition generate(MutableWeatherCondition out) {
+        // update cloud and precipitation chain
+        chainState = nextChainState(chainState, randomFloat(CLOUD_SLOT), randomFloat(PRECIPITATION_SLOT));
+        int nextCloud = (chainState >>> 4) & 3;
+        int nextPrecipitation = chainState & 3;
 
-        return new ConditionAndDuration(
-                condition,
-                randomDuration(condition)
-        );
+        // update wind state
+        nextWindCondition(previousWind);
+
+        // now put generated values into the output object
+        out.cloudiness = SEVERITIES[nextCloud];
+        out.downfallAmount = SEVERITIES[nextPrecipitation];
+        out.downfallType = nextPrecipitation == 0 ? DownfallCondition.DownfallType.NONE : DownfallCondition.DownfallType.RAIN;
+        out.withThunder = randomFloat(THUNDER_SLOT) < THUNDER_CHANCE[nextPrecipitation];
+        out.wind.set(previousWind);
+        out.duration = randomDuration();
+
+        index++;
+        return out;
     }
 }
@@ -0,0 +1,285 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.systems;
+
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.Client;
+import org.terasology.engine.network.NetworkSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.generation.Region;
+import org.terasology.engine.world.generation.facets.ElevationFacet;
+import org.terasology.engine.world.generation.facets.SurfaceTemperatureFacet;
+import org.terasology.engine.world.generator.WorldGenerator;
+import org.terasology.engine.world.time.WorldTime;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.weatherManager.components.WeatherManagerConfigComponent;
+import org.terasology.weatherManager.weather.DownfallCondition;
+import org.terasology.weatherManager.weather.DownfallTypes;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+import org.terasology.weatherManager.weather.WeatherCell;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits the world into square weather cells, each with its own weather.
+ * <p>
+ * The weather that is presented to each player - particles, clouds, snow and water - follows the cell the player is in,
+ * see {@link WeatherManagerSystem#getCondition(int, int)}, unless a command overrides the weather everywhere.
+ * <p>
+ * Cells are created lazily when they are queried or when a player is inside, and evicted when no player has been near
+ * them for a while. Memory and CPU usage therefore scale with the occupied area, not with the size of the world. Since
+ * every cell uses a seekable generator seeded from its coordinates, an evicted cell continues with the same weather when
+ * it is created again.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(RegionalWeatherSystem.class)
+public class RegionalWeatherSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /**
+     * Edge length of a weather cell in blocks, must be a power of two.
+     */
+    public static final int CELL_SIZE = 256;
+
+    private static final int CELL_SIZE_BITS = Integer.numberOfTrailingZeros(CELL_SIZE);
+
+    /**
+     * Time in seconds between two evaluations of the cells around the players.
+     */
+    private static final float UPDATE_INTERVAL = 1.0f;
+
+    /**
+     * Time in milliseconds after which a cell without players is evicted.
+     */
+    private static final long EVICTION_TIME = 60000;
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionalWeatherSystem.class);
+
+    private final Map<Long, WeatherCell> cells = new HashMap<>();
+
+    // keys of the active cells in which it snowed at the last update - replaced as a whole, since the world generator
+    // reads it from other threads through isSnowing
+    private volatile Set<Long> snowingCells = Collections.emptySet();
+
+    @In
+    private WorldProvider worldProvider;
+
+    @In
+    private WorldTime worldTime;
+
+    @In
+    private Context context;
+
+    @In
+    private WeatherManagerSystem weatherManagerSystem;
+
+    private NetworkSystem networkSystem;
+    private WorldGenerator worldGenerator;
+    private float timeSinceUpdate;
+
+    @Override
+    public void postBegin() {
+        networkSystem = context.get(NetworkSystem.class);
+        worldGenerator = context.get(WorldGenerator.class);
+    }
+
+    /**
+     * Drops all cells when the mean duration or the seed changes, since their position in the sequence depends on the
+     * former and their sequence on the latter. They are re-created with the new settings when they are needed again.
+     *
+     * @param event the change event
+     * @param entity the weather entity
+     * @param config the new settings
+     */
+    @ReceiveEvent
+    public void onConfigChanged(OnChangedComponent event, EntityRef entity, WeatherManagerConfigComponent config) {
+        Iterator<WeatherCell> iterator = cells.values().iterator();
+        if (!iterator.hasNext()) {
+            return;
+        }
+        WeatherCell cell = iterator.next();
+        long baseSeed = config.generatorSeed(worldProvider.getSeed());
+        if (cell.getMeanDuration() != config.meanDuration || cell.getSeed() != cellSeed(baseSeed, cell.getCellX(), cell.getCellZ())) {
+            cells.clear();
+            snowingCells = Collections.emptySet();
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        timeSinceUpdate += delta;
+        if (timeSinceUpdate < UPDATE_INTERVAL) {
+            return;
+        }
+        timeSinceUpdate = 0;
+
+        long time = worldTime.getMilliseconds();
+        Vector3f position = new Vector3f();
+        for (Client player : networkSystem.getPlayers()) {
+            LocationComponent location = player.getEntity().getComponent(LocationComponent.class);
+            if (location != null) {
+                location.getWorldPosition(position);
+                getCell((int) Math.floor(position.x), (int) Math.floor(position.z), time);
+            }
+        }
+
+        Set<Long> snowing = new HashSet<>();
+        Iterator<Map.Entry<Long, WeatherCell>> iterator = cells.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, WeatherCell> entry = iterator.next();
+            WeatherCell cell = entry.getValue();
+            if (time - cell.getLastAccessTime() > EVICTION_TIME) {
+                iterator.remove();
+            } else if (weatherManagerSystem.getCondition(cell).downfallType == DownfallCondition.DownfallType.SNOW) {
+                snowing.add(entry.getKey());
+            }
+        }
+        snowingCells = snowing;
+
+        logger.debug("{} weather cells active", cells.size());
+    }
+
+    /**
+     * Returns the cell that contains the given position, brought up to date with the current world time.
+     *
+     * @param worldX the x coordinate of a block
+     * @param worldZ the z coordinate of a block
+     * @return the weather cell that contains the block
+     */
+    public WeatherCell getCell(int worldX, int worldZ) {
+        return getCell(worldX, worldZ, worldTime.getMilliseconds());
+    }
+
+    /**
+     * @param worldX the x coordinate of a block
+     * @param worldZ the z coordinate of a block
+     * @return the current weather condition at the given block - must not be modified
+     */
+    public MutableWeatherCondition getCondition(int worldX, int worldZ) {
+        return getCell(worldX, worldZ).getCondition();
+    }
+
+    /**
+     * @return the cells that are currently held in memory, without updating them - must not be modified
+     */
+    public Collection<WeatherCell> getActiveCells() {
+        return Collections.unmodifiableCollection(cells.values());
+    }
+
+    /**
+     * @return the number of cells that are currently held in memory
+     */
+    public int getActiveCellCount() {
+        return cells.size();
+    }
+
+    private WeatherCell getCell(int worldX, int worldZ, long time) {
+        int cellX = worldX >> CELL_SIZE_BITS;
+        int cellZ = worldZ >> CELL_SIZE_BITS;
+        long key = cellKey(cellX, cellZ);
+
+        WeatherCell cell = cells.get(key);
+        if (cell == null) {
+            WeatherManagerConfigComponent config = weatherManagerSystem.getConfig();
+            float meanDuration = config.meanDuration;
+            long seed = cellSeed(config.generatorSeed(worldProvider.getSeed()), cellX, cellZ);
+            MarkovChainWeatherGenerator generator = new MarkovChainWeatherGenerator(seed,
+                    meanDuration, WeatherManagerSystem.GENERATOR_CHECKPOINT_INTERVAL);
+            int x = (cellX << CELL_SIZE_BITS) + CELL_SIZE / 2;
+            int z = (cellZ << CELL_SIZE_BITS) + CELL_SIZE / 2;
+            Region center = sampleWorldData(x, z);
+            cell = new WeatherCell(cellX, cellZ, generator, meanDuration, temperatureAt(center, x, z), elevationAt(center, x, z),
+                    time);
+            cells.put(key, cell);
+        } else {
+            cell.update(time);
+        }
+        return cell;
+    }
+
+    /**
+     * Samples the generated world data of a single column, which runs the facet pipeline of the world generator. This
+     * happens only once per cell at its center, the values are then cached on the cell.
+     *
+     * @return the world data, null if there is no world generator
+     */
+    private Region sampleWorldData(int x, int z) {
+        if (worldGenerator == null) {
+            return null;
+        }
+        return worldGenerator.getWorld().getWorldData(new BlockRegion(x, 0, z), 1);
+    }
+
+    private static float temperatureAt(Region region, int x, int z) {
+        SurfaceTemperatureFacet facet = region != null ? region.getFacet(SurfaceTemperatureFacet.class) : null;
+        if (facet == null) {
+            return DownfallTypes.DEFAULT_TEMPERATURE;
+        }
+        return facet.getWorld(x, z);
+    }
+
+    private static int elevationAt(Region region, int x, int z) {
+        ElevationFacet facet = region != null ? region.getFacet(ElevationFacet.class) : null;
+        if (facet == null) {
+            return WeatherCell.UNKNOWN_ELEVATION;
+        }
+        return (int) Math.floor(facet.getWorld(x, z));
+    }
+
+    /**
+     * @param worldX the x coordinate of a block
+     * @param worldZ the z coordinate of a block
+     * @return the cached temperature of the cell that contains the block, see {@link DownfallTypes}
+     */
+    public float getTemperature(int worldX, int worldZ) {
+        return getCell(worldX, worldZ).getTemperature();
+    }
+
+    /**
+     * Can be called from any thread, e.g. by world generator plugins. Unlike the other queries, this neither creates nor
+     * updates a cell.
+     *
+     * @param worldX the x coordinate of a block
+     * @param worldZ the z coordinate of a block
+     * @return whether it snowed at the last update in the active cell that contains the block, false if there is none
+     */
+    public boolean isSnowing(int worldX, int worldZ) {
+        return snowingCells.contains(getCellKey(worldX, worldZ));
+    }
+
+    /**
+     * @param worldX the x coordinate of a block
+     * @param worldZ the z coordinate of a block
+     * @return a key that identifies the cell that contains the block
+     */
+    public static long getCellKey(int worldX, int worldZ) {
+        return cellKey(worldX >> CELL_SIZE_BITS, worldZ >> CELL_SIZE_BITS);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static long cellSeed(long baseSeed, int cellX, int cellZ) {
+        return CounterRandom.deriveSeed(baseSeed, cellKey(cellX, cellZ));
+    }
+}
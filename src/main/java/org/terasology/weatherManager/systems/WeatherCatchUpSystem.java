@@ -0,0 +1,325 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.systems;
+
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.utilities.random.FastRandom;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.chunks.Chunk;
+import org.terasology.engine.world.chunks.ChunkProvider;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.chunks.event.BeforeChunkUnload;
+import org.terasology.engine.world.chunks.event.OnChunkLoaded;
+import org.terasology.engine.world.time.WorldTime;
+import org.terasology.flowingliquids.world.block.LiquidData;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.weatherManager.components.WeatherManagerConfigComponent;
+import org.terasology.weatherManager.metrics.WeatherMetrics;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
+import org.terasology.weatherManager.weather.DownfallCondition;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+import org.terasology.weatherManager.weather.Severity;
+import org.terasology.weatherManager.weather.WeatherCell;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.terasology.weatherManager.systems.BlockPlacingWeatherSystem.RAIN_LEVELS_PER_SECOND;
+
+/**
+ * Catches up on the snow and water that {@link BlockPlacingWeatherSystem} would have placed or removed while a chunk was
+ * unloaded, when the chunk is loaded again.
+ * <p>
+ * The weather since the chunk was unloaded is re-generated slot by slot from the weather cell of the chunk, see
+ * {@link WeatherCell}. Overrides by commands are not replayed. Every surface column of the chunk is then run through the
+ * same changes as near a player, with the per-column rates of the periodic actions scheduled by
+ * {@link WeatherManagerSystem}. All resulting changes are written in one batch. Rain is caught up as whole water blocks, at the rate
+ * at which the single liquid levels added by live rain make up whole blocks.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class WeatherCatchUpSystem extends BaseComponentSystem {
+
+    /**
+     * Maximum number of unloaded chunks whose unload time is remembered. The chunks unloaded first are forgotten first.
+     */
+    private static final int MAX_TRACKED_CHUNKS = 16384;
+
+    /**
+     * Maximum number of slots of a cell that are replayed. A chunk that was unloaded for longer is caught up with the
+     * last slots only, by which time its surface has long settled.
+     */
+    private static final long MAX_CATCH_UP_SLOTS = 2048;
+
+    // surface states of a column
+    private static final byte SKIP = 0;
+    private static final byte BARE = 1;
+    private static final byte SNOW = 2;
+    private static final byte WATER = 3;
+
+    private static final int COLUMNS = Chunks.SIZE_X * Chunks.SIZE_Z;
+
+    @In
+    private WorldProvider worldProvider;
+
+    @In
+    private ChunkProvider chunkProvider;
+
+    @In
+    private BlockManager blockManager;
+
+    @In
+    private WorldTime worldTime;
+
+    @In
+    private WeatherManagerSystem weatherManagerSystem;
+
+    @In
+    private RegionalWeatherSystem regionalWeatherSystem;
+
+    @In
+    private WeatherMetricsSystem metricsSystem;
+
+    private final Map<Vector3i, Long> unloadTimes = new LinkedHashMap<Vector3i, Long>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Vector3i, Long> eldest) {
+            return size() > MAX_TRACKED_CHUNKS;
+        }
+    };
+
+    private final FastRandom rand = new FastRandom();
+    private final MutableWeatherCondition slotCondition = new MutableWeatherCondition();
+
+    // per column scratch buffers, reused for every chunk
+    private final byte[] states = new byte[COLUMNS];
+    private final byte[] initialStates = new byte[COLUMNS];
+    // the height of the snow or water block, or of the air above bare ground
+    private final int[] heights = new int[COLUMNS];
+
+    private Block air;
+    private Block snow;
+    private Block water;
+
+    private WeatherMetrics.Counter chunksCaughtUp;
+    private WeatherMetrics.Counter blocksWritten;
+    private WeatherMetrics.Timer catchUpTimer;
+
+    // changes per column and millisecond, from the periods of the periodic actions, see updateRates()
+    private float placeSnowRate;
+    private float meltSnowRate;
+    private float heavyRainRate;
+    private float evaporateWaterRate;
+
+    @Override
+    public void postBegin() {
+        air = blockManager.getBlock("engine:air");
+        snow = blockManager.getBlock("WeatherManager:snow");
+        water = blockManager.getBlock("CoreAssets:water");
+
+        WeatherMetrics metrics = metricsSystem.getMetrics();
+        chunksCaughtUp = metrics.counter("catchUp.chunks");
+        blocksWritten = metrics.counter("catchUp.blocksWritten");
+        catchUpTimer = metrics.timer("catchUp.onChunkLoaded");
+    }
+
+    @ReceiveEvent
+    public void onChunkUnload(BeforeChunkUnload event, EntityRef worldEntity) {
+        unloadTimes.put(new Vector3i(event.getChunkPos()), worldTime.getMilliseconds());
+    }
+
+    @ReceiveEvent
+    public void onChunkLoaded(OnChunkLoaded event, EntityRef worldEntity) {
+        Long unloadTime = unloadTimes.remove(new Vector3i(event.getChunkPos()));
+        if (unloadTime == null) {
+            // not seen before in this session
+            return;
+        }
+        Chunk chunk = chunkProvider.getChunk(event.getChunkPos());
+        if (chunk == null) {
+            return;
+        }
+        long start = catchUpTimer.start();
+        catchUp(chunk, event.getChunkPos(), unloadTime, worldTime.getMilliseconds());
+        catchUpTimer.stop(start);
+    }
+
+    private void catchUp(Chunk chunk, Vector3ic chunkPos, long since, long now) {
+        if (now <= since) {
+            return;
+        }
+        if (!scanSurface(chunk)) {
+            return;
+        }
+        chunksCaughtUp.increment();
+        updateRates();
+
+        int offsetX = chunkPos.x() * Chunks.SIZE_X;
+        int offsetY = chunkPos.y() * Chunks.SIZE_Y;
+        int offsetZ = chunkPos.z() * Chunks.SIZE_Z;
+
+        // a chunk lies within a single cell
+        WeatherCell cell = regionalWeatherSystem.getCell(offsetX, offsetZ);
+        long lastSlot = cell.getSlot(now);
+        for (long slot = Math.max(cell.getSlot(since), lastSlot - MAX_CATCH_UP_SLOTS + 1); slot <= lastSlot; slot++) {
+            long segmentStart = Math.max(since, cell.getSlotStart(slot));
+            long segmentEnd = Math.min(now, cell.getSlotStart(slot + 1));
+            if (segmentEnd > segmentStart) {
+                cell.getCondition(slot, slotCondition);
+                simulate(slotCondition.downfallType, slotCondition.downfallAmount, segmentEnd - segmentStart);
+            }
+        }
+
+        Map<Vector3ic, Block> changes = new HashMap<>();
+        for (int column = 0; column < COLUMNS; column++) {
+            byte state = states[column];
+            if (state == initialStates[column] || initialStates[column] == BARE && state == SKIP) {
+                continue;
+            }
+            int x = offsetX + column % Chunks.SIZE_X;
+            int z = offsetZ + column / Chunks.SIZE_X;
+            changes.put(new Vector3i(x, offsetY + heights[column], z), blockFor(state));
+        }
+        if (!changes.isEmpty()) {
+            worldProvider.setBlocks(changes);
+            blocksWritten.add(changes.size());
+        }
+    }
+
+    /**
+     * Derives the per-column rates from the current settings. {@link BlockPlacingWeatherSystem} picks one column in the
+     * area around a player per action, once per period of the action. The initial delay only matters when the action is
+     * scheduled and is ignored here.
+     */
+    private void updateRates() {
+        WeatherManagerConfigComponent config = weatherManagerSystem.getConfig();
+        float area = (2 * config.snowBlockRange) * (2 * config.snowBlockRange);
+        placeSnowRate = 1 / (config.placeSnowPeriod * area);
+        meltSnowRate = 1 / (config.meltSnowPeriod * area);
+        evaporateWaterRate = 1 / (config.evaporateWaterPeriod * area);
+        heavyRainRate = RAIN_LEVELS_PER_SECOND / (1000f * area * LiquidData.MAX_HEIGHT);
+    }
+
+    /**
+     * Finds the surface of every column that is exposed to the sky and within this chunk.
+     *
+     * @return whether any column can be affected by the weather
+     */
+    private boolean scanSurface(Chunk chunk) {
+        boolean any = false;
+        for (int z = 0; z < Chunks.SIZE_Z; z++) {
+            for (int x = 0; x < Chunks.SIZE_X; x++) {
+                int column = x + z * Chunks.SIZE_X;
+                byte state = SKIP;
+                int y = Chunks.SIZE_Y - 1;
+                if (chunk.getBlock(x, y, z).equals(air)) {
+                    while (y > 0 && chunk.getBlock(x, y - 1, z).equals(air)) {
+                        y--;
+                    }
+                    // y is the lowest air block of the column, directly above the ground
+                    if (y > 0 && chunk.getSunlight(x, y, z) == Chunks.MAX_SUNLIGHT) {
+                        state = classifyGround(chunk.getBlock(x, y - 1, z));
+                    }
+                }
+                if (state == SNOW || state == WATER) {
+                    y--;
+                }
+                states[column] = state;
+                initialStates[column] = state;
+                heights[column] = y;
+                any |= state != SKIP;
+            }
+        }
+        return any;
+    }
+
+    private byte classifyGround(Block ground) {
+        if (ground.equals(snow)) {
+            return SNOW;
+        }
+        if (ground.equals(water)) {
+            return WATER;
+        }
+        if (!ground.isPenetrable() && ground.isAttachmentAllowed()) {
+            return BARE;
+        }
+        return SKIP;
+    }
+
+    /**
+     * Applies the expected changes of one weather condition to all columns.
+     *
+     * @param type the type of downfall
+     * @param amount the amount of downfall
+     * @param duration how long the condition lasted, in milliseconds
+     */
+    private void simulate(DownfallCondition.DownfallType type, Severity amount, long duration) {
+        float placeSnow = 0;
+        float placeWater = 0;
+        float meltSnow = 0;
+        float evaporateWater = 0;
+        switch (type) {
+            case SNOW:
+                placeSnow = probability(placeSnowRate, duration);
+                break;
+            case RAIN:
+                meltSnow = probability(meltSnowRate, duration);
+                placeWater = probability(heavyRainRate * amount.getNumericValue(), duration);
+                break;
+            case NONE:
+                meltSnow = probability(meltSnowRate, duration);
+                evaporateWater = probability(evaporateWaterRate, duration);
+                break;
+            default:
+                return;
+        }
+
+        for (int column = 0; column < COLUMNS; column++) {
+            switch (states[column]) {
+                case BARE:
+                    if (rand.nextFloat() < placeSnow) {
+                        states[column] = SNOW;
+                    } else if (rand.nextFloat() < placeWater) {
+                        states[column] = WATER;
+                    }
+                    break;
+                case SNOW:
+                    if (rand.nextFloat() < meltSnow) {
+                        states[column] = rand.nextFloat() < evaporateWater ? SKIP : WATER;
+                    }
+                    break;
+                case WATER:
+                    if (rand.nextFloat() < evaporateWater) {
+                        // the ground below is unknown, so the column is not changed any further
+                        states[column] = SKIP;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static float probability(float rate, long duration) {
+        return 1 - (float) Math.exp(-rate * duration);
+    }
+
+    private Block blockFor(byte state) {
+        switch (state) {
+            case SNOW:
+                return snow;
+            case WATER:
+                return water;
+            default:
+                return air;
+        }
+    }
+}
@@ -3,6 +3,7 @@
 package org.terasology.weatherManager.systems;
 
 import org.terasology.weatherManager.weather.ConditionAndDuration;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
 
 /**
  * Factory class for creating changing weather conditions Created by Linus on 5-11-2014.
@@ -18,4 +19,38 @@ public interface WeatherConditionProvider {
      */
     ConditionAndDuration getNext();
 
+    /**
+     * Writes the next condition generated by this provider into a caller-provided object. Implementations should override
+     * this to avoid creating intermediate objects.
+     *
+     * @param out will hold the next condition
+     * @return out
+     */
+    default MutableWeatherCondition getNext(MutableWeatherCondition out) {
+        return out.set(getNext());
+    }
+
+    /**
+     * Looks ahead at the next conditions without consuming them. The following calls to {@link #getNext()} return the
+     * same conditions in the same order.
+     *
+     * @param n the number of conditions to look ahead
+     * @return the next n conditions, in the order they will be returned by {@link #getNext()}
+     */
+    ConditionAndDuration[] forecast(int n);
+
+    /**
+     * Looks ahead at the next conditions without consuming them, writing them into caller-provided objects.
+     *
+     * @param out will hold the next {@code out.length} conditions
+     * @return out
+     */
+    default MutableWeatherCondition[] forecast(MutableWeatherCondition[] out) {
+        ConditionAndDuration[] conditions = forecast(out.length);
+        for (int i = 0; i < out.length; i++) {
+            out[i].set(conditions[i]);
+        }
+        return out;
+    }
+
 }
@@ -5,30 +5,48 @@ package org.terasology.weatherManager.systems;
 
 import com.google.common.math.DoubleMath;
 import org.joml.Vector2f;
+import org.joml.Vector3f;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
 import org.terasology.engine.logic.console.commandSystem.annotations.Command;
 import org.terasology.engine.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.engine.logic.console.commandSystem.annotations.Sender;
 import org.terasology.engine.logic.delay.DelayManager;
 import org.terasology.engine.logic.delay.DelayedActionTriggeredEvent;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.logic.permission.PermissionManager;
 import org.terasology.engine.logic.players.event.LocalPlayerInitializedEvent;
+import org.terasology.engine.network.NetworkComponent;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.registry.Share;
+import org.terasology.engine.world.WorldProvider;
 import org.terasology.engine.world.time.WorldTime;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
 import org.terasology.weatherManager.components.WeatherBase;
+import org.terasology.weatherManager.components.WeatherGeneratorStateComponent;
+import org.terasology.weatherManager.components.WeatherManagerConfigComponent;
 import org.terasology.weatherManager.events.StartHailEvent;
 import org.terasology.weatherManager.events.StartRainEvent;
 import org.terasology.weatherManager.events.StartSnowEvent;
 import org.terasology.weatherManager.events.StartSunEvent;
+import org.terasology.weatherManager.events.WeatherChangedEvent;
+import org.terasology.weatherManager.metrics.WeatherMetrics;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
 import org.terasology.weatherManager.weather.ConditionAndDuration;
+import org.terasology.weatherManager.weather.ContinuousWeatherState;
 import org.terasology.weatherManager.weather.DownfallCondition;
+import org.terasology.weatherManager.weather.DownfallTypes;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+import org.terasology.weatherManager.weather.PackedWeatherCondition;
 import org.terasology.weatherManager.weather.Severity;
+import org.terasology.weatherManager.weather.WeatherCell;
 import org.terasology.weatherManager.weather.WeatherCondition;
+import org.terasology.weatherManager.weather.WeatherHistory;
 
 import java.math.RoundingMode;
 import java.util.Iterator;
@@ -43,6 +61,29 @@ public class WeatherManagerSystem extends BaseComponentSystem {
     public static final String EVAPORATE_WATER = "evaporateWater";
     public static final String PLACE_WATER = "placeWater";
 
+    private static final String RANDOM_WEATHER = "RandomWeather";
+
+    /**
+     * Maximum number of conditions the weatherForecast command looks ahead, which bounds the lookahead buffer of the
+     * generator.
+     */
+    static final int MAX_FORECAST = 64;
+
+    /**
+     * Number of generated conditions between two checkpoints of the seekable weather generator.
+     */
+    static final int GENERATOR_CHECKPOINT_INTERVAL = 64;
+
+    /**
+     * Maximum time in milliseconds it takes to blend from one weather condition to the next.
+     */
+    private static final long TRANSITION_TIME = 10000;
+
+    /**
+     * Number of past conditions kept in the weather history, which covers a few days at the mean duration.
+     */
+    private static final int HISTORY_CAPACITY = 2048;
+
     private static final org.slf4j.Logger logger = LoggerFactory.getLogger(WeatherManagerSystem.class);
 
     private Vector2f currentWind = new Vector2f();
@@ -50,11 +91,30 @@ public class WeatherManagerSystem extends BaseComponentSystem {
 
     private DownfallCondition.DownfallType currentWeather;
 
-    private WeatherConditionProvider weatherConditionProvider;
+    private MarkovChainWeatherGenerator weatherConditionProvider;
+    private WeatherManagerConfigComponent config = new WeatherManagerConfigComponent();
+    private final MutableWeatherCondition generated = new MutableWeatherCondition();
 
     private ConditionAndDuration current;
+    private long currentEnd;
+    private final WeatherHistory history = new WeatherHistory(HISTORY_CAPACITY);
     private EntityRef weatherEntity;
 
+    // whether the current condition was set by a command, which then overrides the weather of the cells
+    private boolean overridden;
+    private final MutableWeatherCondition overrideCondition = new MutableWeatherCondition();
+
+    // smooth interpolation from the state at the last change to the current condition
+    private final ContinuousWeatherState transitionFrom = new ContinuousWeatherState();
+    private final ContinuousWeatherState transitionTo = new ContinuousWeatherState();
+    private long transitionStart;
+    private long transitionLength;
+
+    // what has been published last, to avoid sending events when nothing changed
+    private WeatherCondition publishedCondition;
+    private DownfallCondition.DownfallType publishedWeather;
+    private boolean actionsScheduled;
+
     @In
     private EntityManager entityManager;
 
@@ -64,6 +124,19 @@ public class WeatherManagerSystem extends BaseComponentSystem {
     @In
     private WorldTime worldTime;
 
+    @In
+    private WorldProvider worldProvider;
+
+    @In
+    private WeatherMetricsSystem metricsSystem;
+
+    @In
+    private RegionalWeatherSystem regionalWeatherSystem;
+
+    private WeatherMetrics.Counter transitions;
+    private WeatherMetrics.Counter eventsSent;
+    private WeatherMetrics.Timer generateTimer;
+
     @Command(shortDescription = "Make it rain", helpText = "Changes the weather to raining for some time")
     public String makeRain(@CommandParam(value = "time") int time) {
         float windX = randomWindSpeed();
@@ -109,20 +182,56 @@ public class WeatherManagerSystem extends BaseComponentSystem {
         return "It is now sunny.";
     }
 
+    @Command(shortDescription = "Show the weather forecast",
+            helpText = "Lists the upcoming weather conditions and their durations where you are", runOnServer = true)
+    public String weatherForecast(@Sender EntityRef sender, @CommandParam(value = "count") int count) {
+        if (count <= 0) {
+            return "Usage: weatherForecast <count>, with a count between 1 and " + MAX_FORECAST;
+        }
+        LocationComponent location = sender.getComponent(LocationComponent.class);
+        if (location == null) {
+            return "There is no weather forecast for where you are.";
+        }
+        Vector3f position = location.getWorldPosition(new Vector3f());
+        WeatherCell cell = regionalWeatherSystem.getCell((int) Math.floor(position.x), (int) Math.floor(position.z));
+
+        StringBuilder builder = new StringBuilder();
+        if (overridden) {
+            builder.append("Until ").append(currentEnd).append(": ").append(current).append('\n');
+        }
+        for (ConditionAndDuration conditionAndDuration : cell.getForecast(Math.min(count, MAX_FORECAST))) {
+            builder.append(conditionAndDuration).append('\n');
+        }
+        return builder.toString();
+    }
+
+    @Command(shortDescription = "Toggle client-side weather prediction",
+            helpText = "If enabled, clients generate the weather of their cell themselves and the server only sends the cell "
+                    + "and overrides")
+    public String weatherPrediction(@CommandParam(value = "enabled") boolean enabled) {
+        if (enabled == config.predictWeather) {
+            return "Weather prediction is already " + (enabled ? "enabled." : "disabled.");
+        }
+        config.predictWeather = enabled;
+        weatherEntity.saveComponent(config);
+        return "Weather prediction is now " + (enabled ? "enabled." : "disabled.");
+    }
+
     @ReceiveEvent
     public void onLocalPlayerReady(LocalPlayerInitializedEvent event, EntityRef entity) {
-        long length = DoubleMath.roundToLong(current.duration, RoundingMode.HALF_UP);
-        delayManager.addDelayedAction(weatherEntity, "RandomWeather", length);
-        changeWeather(current);
+        scheduleNextChange(false);
+
+        // the local player's client systems have not seen the current weather yet
+        publishedWeather = null;
+        triggerEvents();
     }
 
     @Override
     public void postBegin() {
-        float avglength = WorldTime.DAY_LENGTH / 480.0f; // / 48.0f; // worldTime.getTimeRate(); -- not available for modules
-        weatherConditionProvider = new MarkovChainWeatherGenerator(12354, avglength);
-        current = weatherConditionProvider.getNext();
-
-        boolean weatherEntityFound = false;
+        WeatherMetrics metrics = metricsSystem.getMetrics();
+        transitions = metrics.counter("weather.transitions");
+        eventsSent = metrics.counter("events.weatherManager");
+        generateTimer = metrics.timer("weather.generate");
 
         Iterator weatherEntityIter = entityManager.getEntitiesWith(WeatherBase.class).iterator();
         if (weatherEntityIter.hasNext()) {
@@ -132,7 +241,121 @@ public class WeatherManagerSystem extends BaseComponentSystem {
             weatherEntity.addComponent(new WeatherBase());
         }
 
-        changeWeather(current);
+        // the settings are replicated to the clients through the weather entity
+        if (!weatherEntity.hasComponent(NetworkComponent.class)) {
+            NetworkComponent network = new NetworkComponent();
+            network.replicateMode = NetworkComponent.ReplicateMode.ALWAYS;
+            weatherEntity.addComponent(network);
+        }
+        loadConfig();
+
+        WeatherGeneratorStateComponent state = weatherEntity.getComponent(WeatherGeneratorStateComponent.class);
+        if (state != null) {
+            weatherConditionProvider = new MarkovChainWeatherGenerator(state.seed, config.meanDuration, GENERATOR_CHECKPOINT_INTERVAL);
+            weatherConditionProvider.restore(state.index, state.chainState);
+            current = PackedWeatherCondition.decode(state.currentCondition);
+            overridden = state.overridden;
+            overrideCondition.set(current);
+        } else {
+            weatherConditionProvider = new MarkovChainWeatherGenerator(configuredSeed(), config.meanDuration,
+                    GENERATOR_CHECKPOINT_INTERVAL);
+            current = nextCondition();
+        }
+
+        // keep a change that is still scheduled from the last session
+        scheduleNextChange(false);
+        applyCurrent();
+    }
+
+    /**
+     * Takes the settings from the weather entity, or adds the default settings if there are none or they are invalid.
+     */
+    private void loadConfig() {
+        WeatherManagerConfigComponent stored = weatherEntity.getComponent(WeatherManagerConfigComponent.class);
+        if (stored != null) {
+            try {
+                stored.validate();
+                config = stored;
+                return;
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid weather settings, using the defaults: {}", e.getMessage());
+            }
+        }
+        config = new WeatherManagerConfigComponent();
+        weatherEntity.addOrSaveComponent(config);
+    }
+
+    private long configuredSeed() {
+        return config.generatorSeed(worldProvider.getSeed());
+    }
+
+    /**
+     * Applies changed settings to the running weather: the generator is re-seeded if the seed changed, and the periodic
+     * actions are rescheduled with the new intervals.
+     *
+     * @param event the change event
+     * @param entity the weather entity
+     * @param changed the new settings
+     */
+    @ReceiveEvent
+    public void onConfigChanged(OnChangedComponent event, EntityRef entity, WeatherManagerConfigComponent changed) {
+        config = changed;
+        if (weatherConditionProvider == null) {
+            return;
+        }
+        long seed = configuredSeed();
+        if (seed != weatherConditionProvider.getSeed()) {
+            weatherConditionProvider = new MarkovChainWeatherGenerator(seed, config.meanDuration, GENERATOR_CHECKPOINT_INTERVAL);
+        } else {
+            weatherConditionProvider.setMeanDuration(config.meanDuration);
+        }
+
+        if (delayManager != null) {
+            cancelPeriodicActions();
+            triggerEvents();
+        }
+    }
+
+    @Command(shortDescription = "Show the weather settings", helpText = "Lists all settings of the weather module",
+            runOnServer = true)
+    public String weatherConfig() {
+        return config.toString();
+    }
+
+    @Command(shortDescription = "Change a weather setting",
+            helpText = "Changes a setting of the weather module, which is applied immediately", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String setWeatherConfig(@CommandParam(value = "setting") String setting, @CommandParam(value = "value") String value) {
+        WeatherManagerConfigComponent changed = new WeatherManagerConfigComponent();
+        changed.copyFrom(config);
+        try {
+            changed.set(setting, value);
+            changed.validate();
+        } catch (IllegalArgumentException e) {
+            return "Invalid setting: " + e.getMessage();
+        }
+        config.copyFrom(changed);
+        weatherEntity.saveComponent(config);
+        return setting + " is now " + value + ".";
+    }
+
+    /**
+     * Stores the state of the weather generator and the current weather on the weather entity, so that the sequence
+     * continues after loading the world.
+     */
+    private void saveGeneratorState() {
+        WeatherGeneratorStateComponent state = weatherEntity.getComponent(WeatherGeneratorStateComponent.class);
+        if (state == null) {
+            state = new WeatherGeneratorStateComponent();
+        }
+
+        state.seed = weatherConditionProvider.getSeed();
+        state.index = weatherConditionProvider.getIndex();
+        state.chainState = weatherConditionProvider.getChainState();
+        state.currentCondition = PackedWeatherCondition.encode(current);
+        state.overridden = overridden;
+
+        weatherEntity.addOrSaveComponent(state);
     }
 
     /**
@@ -142,11 +365,55 @@ public class WeatherManagerSystem extends BaseComponentSystem {
      */
     private void changeWeather(ConditionAndDuration conditionAndDuration) {
         current = conditionAndDuration;
+        overridden = true;
+        overrideCondition.set(current);
+        scheduleNextChange(true);
+        applyCurrent();
+    }
+
+    /**
+     * Generates the next global condition. The global weather has no location, so the type of downfall is chosen by the
+     * default temperature - the players see the weather of their cells instead, see {@link WeatherCell}.
+     */
+    private ConditionAndDuration nextCondition() {
+        weatherConditionProvider.getNext(generated);
+        return DownfallTypes.apply(generated, DownfallTypes.DEFAULT_TEMPERATURE).toConditionAndDuration();
+    }
+
+    /**
+     * Schedules the change to the next generated condition after the duration of the current one.
+     *
+     * @param replace whether an already scheduled change should be replaced
+     */
+    private void scheduleNextChange(boolean replace) {
+        if (delayManager == null || weatherEntity == null) {
+            return;
+        }
+        if (delayManager.hasDelayedAction(weatherEntity, RANDOM_WEATHER)) {
+            if (!replace) {
+                return;
+            }
+            delayManager.cancelDelayedAction(weatherEntity, RANDOM_WEATHER);
+        }
         long length = DoubleMath.roundToLong(current.duration, RoundingMode.HALF_UP);
+        delayManager.addDelayedAction(weatherEntity, RANDOM_WEATHER, Math.max(1, length));
+    }
 
-        if (delayManager != null && weatherEntity != null && !delayManager.hasDelayedAction(weatherEntity, "Weather")) {
-            delayManager.addDelayedAction(weatherEntity, "Weather", length);
+    /**
+     * Makes {@link #current} the active weather and starts blending towards it.
+     */
+    private void applyCurrent() {
+        long time = worldTime.getMilliseconds();
+        if (transitionLength > 0) {
+            getWeatherState(transitionFrom);
+        } else {
+            transitionFrom.set(current.condition);
         }
+        transitionTo.set(current.condition);
+        transitionStart = time;
+        currentEnd = time + Math.max(1, DoubleMath.roundToLong(current.duration, RoundingMode.HALF_UP));
+        history.add(time, PackedWeatherCondition.encode(current));
+        transitionLength = Math.max(1, Math.min(TRANSITION_TIME, (long) (current.duration / 2)));
 
         currentWeather = current.condition.downfallCondition.getDownfallValues().type;
         severity = current.condition.downfallCondition.getDownfallValues().amount;
@@ -156,48 +423,45 @@ public class WeatherManagerSystem extends BaseComponentSystem {
 
     @ReceiveEvent
     public void onTimeEvent(DelayedActionTriggeredEvent event, EntityRef worldEntity) {
-        if (event.getActionId().equals("RandomWeather")) {
-            current = weatherConditionProvider.getNext();
-            currentWeather = current.condition.downfallCondition.getDownfallValues().type;
-            severity = current.condition.downfallCondition.getDownfallValues().amount;
-            currentWind.set(current.condition.wind);
-            triggerEvents();
+        if (event.getActionId().equals(RANDOM_WEATHER)) {
+            long start = generateTimer.start();
+            current = nextCondition();
+            overridden = false;
+            generateTimer.stop(start);
+            scheduleNextChange(false);
+            applyCurrent();
             logger.debug("WEATHER CHANGED: " + current.condition + "(" + current.duration + ")");
         }
     }
 
     /**
-     * Adds/removes periodic actions and sends events based on the type of weather it currently is.
+     * Adds the periodic actions if they are not scheduled yet and sends events based on the type of weather it currently
+     * is. Events are only sent if they differ from what has been published before.
      */
     private void triggerEvents() {
-        if (delayManager != null && weatherEntity != null) {
-            if (delayManager.hasPeriodicAction(weatherEntity, MELT_SNOW)) {
-                delayManager.cancelPeriodicAction(weatherEntity, MELT_SNOW);
-            }
-            if (delayManager.hasPeriodicAction(weatherEntity, EVAPORATE_WATER)) {
-                delayManager.cancelPeriodicAction(weatherEntity, EVAPORATE_WATER);
-            }
-            if (delayManager.hasPeriodicAction(weatherEntity, PLACE_SNOW)) {
-                delayManager.cancelPeriodicAction(weatherEntity, PLACE_SNOW);
-            }
-            if (delayManager.hasPeriodicAction(weatherEntity, PLACE_WATER)) {
-                delayManager.cancelPeriodicAction(weatherEntity, PLACE_WATER);
-            }
+        if (publishedCondition != current.condition) {
+            WeatherCondition oldCondition = publishedCondition;
+            publishedCondition = current.condition;
+            weatherEntity.send(new WeatherChangedEvent(oldCondition, current.condition));
+            eventsSent.increment();
+            transitions.increment();
+        }
 
-            if (currentWeather.equals(DownfallCondition.DownfallType.SNOW)) {
-                delayManager.addPeriodicAction(weatherEntity, PLACE_SNOW, 200, 400);
-            }
+        if (delayManager != null && weatherEntity != null && !actionsScheduled) {
+            actionsScheduled = true;
 
-            if (currentWeather.equals(DownfallCondition.DownfallType.NONE)) {
-                delayManager.addPeriodicAction(weatherEntity, MELT_SNOW, 150, 300);
-                delayManager.addPeriodicAction(weatherEntity, EVAPORATE_WATER, 150, 300);
-            }
+            // the weather differs between the players, BlockPlacingWeatherSystem checks which actions apply to whom
+            delayManager.addPeriodicAction(weatherEntity, PLACE_SNOW, config.placeSnowDelay, config.placeSnowPeriod);
+            delayManager.addPeriodicAction(weatherEntity, MELT_SNOW, config.meltSnowDelay, config.meltSnowPeriod);
+            delayManager.addPeriodicAction(weatherEntity, EVAPORATE_WATER, config.evaporateWaterDelay, config.evaporateWaterPeriod);
+            delayManager.addPeriodicAction(weatherEntity, PLACE_WATER, config.rainPeriod, config.rainPeriod);
+        }
 
-            if (currentWeather.equals(DownfallCondition.DownfallType.RAIN)) {
-                delayManager.addPeriodicAction(weatherEntity, MELT_SNOW, 150, 300);
-                delayManager.addPeriodicAction(weatherEntity, PLACE_WATER, 1000, 10000);
-            }
+        if (publishedWeather == currentWeather) {
+            return;
         }
+        publishedWeather = currentWeather;
+        eventsSent.increment();
 
         if (currentWeather.equals(DownfallCondition.DownfallType.SNOW)) {
             weatherEntity.send(new StartSnowEvent());
@@ -216,11 +480,7 @@ public class WeatherManagerSystem extends BaseComponentSystem {
         }
     }
 
-    /**
-     * Removes the periodic actions before saving, in case the game will be closed out.
-     */
-    @Override
-    public void preSave() {
+    private void cancelPeriodicActions() {
         if (delayManager.hasPeriodicAction(weatherEntity, PLACE_SNOW)) {
             delayManager.cancelPeriodicAction(weatherEntity, PLACE_SNOW);
         }
@@ -236,13 +496,128 @@ public class WeatherManagerSystem extends BaseComponentSystem {
         if (delayManager.hasPeriodicAction(weatherEntity, EVAPORATE_WATER)) {
             delayManager.cancelPeriodicAction(weatherEntity, EVAPORATE_WATER);
         }
+        actionsScheduled = false;
     }
 
+    /**
+     * Stores the generator state and removes the periodic actions before saving, in case the game will be closed out.
+     */
+    @Override
+    public void preSave() {
+        saveGeneratorState();
+        cancelPeriodicActions();
+    }
+
+    /**
+     * Restores the periodic actions removed in {@link #preSave()}. No events are sent, since the weather did not change.
+     */
     @Override
     public void postSave() {
         triggerEvents();
     }
 
+    /**
+     * Looks ahead at the upcoming global weather, with the type of downfall chosen like for generated conditions. This
+     * does not change the weather that will actually follow.
+     *
+     * @param count the number of conditions to look ahead
+     * @return the next conditions that will follow the current one, in order
+     */
+    public ConditionAndDuration[] getForecast(int count) {
+        MutableWeatherCondition[] conditions = new MutableWeatherCondition[count];
+        for (int i = 0; i < count; i++) {
+            conditions[i] = new MutableWeatherCondition();
+        }
+        weatherConditionProvider.forecast(conditions);
+
+        ConditionAndDuration[] result = new ConditionAndDuration[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = DownfallTypes.apply(conditions[i], DownfallTypes.DEFAULT_TEMPERATURE).toConditionAndDuration();
+        }
+        return result;
+    }
+
+    /**
+     * Computes the current weather, smoothly blended between the previous and the current condition. This is cheap and
+     * does not allocate, so it can be polled every frame.
+     *
+     * @param dest will hold the current weather state
+     * @return dest
+     */
+    public ContinuousWeatherState getWeatherState(ContinuousWeatherState dest) {
+        if (transitionLength <= 0) {
+            return dest;
+        }
+        float t = (worldTime.getMilliseconds() - transitionStart) / (float) transitionLength;
+        return dest.lerp(transitionFrom, transitionTo, Math.max(0, Math.min(1, t)));
+    }
+
+    /**
+     * @return the condition set by a weather command, which holds everywhere instead of the weather of the cells until it
+     *         ends, null if there is none - must not be modified
+     */
+    public MutableWeatherCondition getOverride() {
+        return overridden ? overrideCondition : null;
+    }
+
+    /**
+     * @return the world time in milliseconds at which the current condition ends
+     */
+    public long getCurrentEnd() {
+        return currentEnd;
+    }
+
+    /**
+     * The weather at a position, which is the condition of its weather cell unless a command overrides it.
+     *
+     * @param worldX the x coordinate of a block
+     * @param worldZ the z coordinate of a block
+     * @return the current weather condition at the given block - must not be modified
+     */
+    public MutableWeatherCondition getCondition(int worldX, int worldZ) {
+        return overridden ? overrideCondition : regionalWeatherSystem.getCondition(worldX, worldZ);
+    }
+
+    /**
+     * @param cell an up to date weather cell
+     * @return the current weather condition in the cell - must not be modified
+     */
+    public MutableWeatherCondition getCondition(WeatherCell cell) {
+        return overridden ? overrideCondition : cell.getCondition();
+    }
+
+    /**
+     * Computes the current weather at a position, smoothly blended between the previous and the current condition.
+     *
+     * @param worldX the x coordinate of a block
+     * @param worldZ the z coordinate of a block
+     * @param dest will hold the weather state
+     * @return dest
+     */
+    public ContinuousWeatherState getWeatherState(int worldX, int worldZ, ContinuousWeatherState dest) {
+        if (overridden) {
+            return getWeatherState(dest);
+        }
+        return regionalWeatherSystem.getCell(worldX, worldZ).getWeatherState(worldTime.getMilliseconds(), dest);
+    }
+
+    /**
+     * @return the current settings of the weather module - must not be modified, use the setWeatherConfig command instead
+     */
+    public WeatherManagerConfigComponent getConfig() {
+        return config;
+    }
+
+    /**
+     * The conditions of the current session, including the current one. Other systems can query it, e.g. for the weather
+     * at a given time, but should not modify it.
+     *
+     * @return the record of past weather
+     */
+    public WeatherHistory getWeatherHistory() {
+        return history;
+    }
+
     public DownfallCondition.DownfallType getCurrentWeather() {
         return currentWeather;
     }
@@ -0,0 +1,124 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.systems;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.players.LocalPlayer;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.world.time.WorldTime;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.weatherManager.components.WeatherPredictionComponent;
+import org.terasology.weatherManager.components.WeatherStateComponent;
+import org.terasology.weatherManager.weather.WeatherCell;
+
+/**
+ * Predicts the weather of the local player's cell on remote clients, see {@link WeatherPredictionComponent}.
+ * <p>
+ * The predicted weather is written to the local copy of the {@link WeatherStateComponent}, so that the client systems
+ * cannot tell it apart from a replicated state.
+ */
+@RegisterSystem(RegisterMode.REMOTE_CLIENT)
+public class WeatherPredictionSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    @In
+    private WorldTime worldTime;
+
+    @In
+    private LocalPlayer localPlayer;
+
+    private EntityRef clientEntity = EntityRef.NULL;
+    private WeatherCell cell;
+    private int overrideState;
+    private long overrideEnd;
+
+    /**
+     * Starts predicting when the cell of the local player first arrives.
+     *
+     * @param event the activation event
+     * @param entity the client entity of a player
+     * @param prediction the replicated cell
+     */
+    @ReceiveEvent
+    public void onPredictionActivated(OnActivatedComponent event, EntityRef entity, WeatherPredictionComponent prediction) {
+        resetPrediction(entity, prediction);
+    }
+
+    /**
+     * Continues with another cell when the local player entered it, or after the server overrode the weather.
+     *
+     * @param event the change event
+     * @param entity the client entity of a player
+     * @param prediction the replicated cell
+     */
+    @ReceiveEvent
+    public void onPredictionChanged(OnChangedComponent event, EntityRef entity, WeatherPredictionComponent prediction) {
+        resetPrediction(entity, prediction);
+    }
+
+    /**
+     * Stops predicting when the server disables the prediction and replicates every change again.
+     *
+     * @param event the deactivation event
+     * @param entity the client entity of a player
+     * @param prediction the removed cell
+     */
+    @ReceiveEvent
+    public void onPredictionRemoved(BeforeDeactivateComponent event, EntityRef entity, WeatherPredictionComponent prediction) {
+        if (entity.equals(clientEntity)) {
+            clientEntity = EntityRef.NULL;
+            cell = null;
+        }
+    }
+
+    private void resetPrediction(EntityRef entity, WeatherPredictionComponent prediction) {
+        if (!entity.equals(localPlayer.getClientEntity())) {
+            return;
+        }
+        if (cell == null || cell.getSeed() != prediction.seed || cell.getMeanDuration() != prediction.meanDuration) {
+            MarkovChainWeatherGenerator generator = new MarkovChainWeatherGenerator(prediction.seed, prediction.meanDuration,
+                    WeatherManagerSystem.GENERATOR_CHECKPOINT_INTERVAL);
+            cell = new WeatherCell(prediction.cellX, prediction.cellZ, generator, prediction.meanDuration,
+                    prediction.temperature, WeatherCell.UNKNOWN_ELEVATION, worldTime.getMilliseconds());
+        }
+        clientEntity = entity;
+        overrideState = prediction.overrideState;
+        overrideEnd = prediction.overrideEnd;
+        predict();
+    }
+
+    @Override
+    public void update(float delta) {
+        if (cell != null) {
+            predict();
+        }
+    }
+
+    /**
+     * Publishes the override while it lasts, and otherwise the condition of the cell at the current world time.
+     */
+    private void predict() {
+        long time = worldTime.getMilliseconds();
+        if (time < overrideEnd) {
+            publish(overrideState);
+        } else {
+            cell.update(time);
+            publish(WeatherStateComponent.pack(cell.getCondition()));
+        }
+    }
+
+    private void publish(int packedState) {
+        WeatherStateComponent state = clientEntity.getComponent(WeatherStateComponent.class);
+        if (state != null && state.packedState != packedState) {
+            state.packedState = packedState;
+            clientEntity.saveComponent(state);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+
+package org.terasology.weatherManager.systems;
+
+import org.joml.Vector3f;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.Client;
+import org.terasology.engine.network.NetworkSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.weatherManager.components.WeatherManagerConfigComponent;
+import org.terasology.weatherManager.components.WeatherPredictionComponent;
+import org.terasology.weatherManager.components.WeatherStateComponent;
+import org.terasology.weatherManager.events.WeatherChangedEvent;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+import org.terasology.weatherManager.weather.WeatherCell;
+
+/**
+ * Presents the weather of the cell each player is in to that player, on the player's client entity.
+ * <p>
+ * Without prediction, the packed {@link WeatherStateComponent} is saved whenever the weather at the player changes. With
+ * prediction enabled, remote players get a {@link WeatherPredictionComponent} instead, which only changes when the player
+ * enters another cell or the weather is overridden, and {@link WeatherPredictionSystem} generates the weather on the
+ * client.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class WeatherPresentationSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /**
+     * Time in seconds between two evaluations of the weather at the players.
+     */
+    private static final float UPDATE_INTERVAL = 1.0f;
+
+    @In
+    private WeatherManagerSystem weatherManagerSystem;
+
+    @In
+    private RegionalWeatherSystem regionalWeatherSystem;
+
+    @In
+    private Context context;
+
+    private NetworkSystem networkSystem;
+    private float timeSinceUpdate;
+
+    @Override
+    public void postBegin() {
+        networkSystem = context.get(NetworkSystem.class);
+    }
+
+    @Override
+    public void update(float delta) {
+        timeSinceUpdate += delta;
+        if (timeSinceUpdate < UPDATE_INTERVAL) {
+            return;
+        }
+        timeSinceUpdate = 0;
+        presentAll();
+    }
+
+    /**
+     * Presents a change of the global weather, e.g. an override by a command, without waiting for the next update.
+     *
+     * @param event the change event
+     * @param entity the weather entity
+     */
+    @ReceiveEvent
+    public void onWeatherChanged(WeatherChangedEvent event, EntityRef entity) {
+        presentAll();
+    }
+
+    /**
+     * Switches between prediction and replicated states when the setting changes.
+     *
+     * @param event the change event
+     * @param entity the weather entity
+     * @param config the new settings
+     */
+    @ReceiveEvent
+    public void onConfigChanged(OnChangedComponent event, EntityRef entity, WeatherManagerConfigComponent config) {
+        presentAll();
+    }
+
+    private void presentAll() {
+        if (networkSystem == null) {
+            return;
+        }
+        boolean predict = weatherManagerSystem.getConfig().predictWeather;
+        Vector3f position = new Vector3f();
+        for (Client player : networkSystem.getPlayers()) {
+            EntityRef clientEntity = player.getEntity();
+            LocationComponent location = clientEntity.getComponent(LocationComponent.class);
+            if (location == null) {
+                continue;
+            }
+            location.getWorldPosition(position);
+            int x = (int) Math.floor(position.x);
+            int z = (int) Math.floor(position.z);
+
+            // the local player of a listen server has no client systems that could predict
+            if (predict && !player.isLocal()) {
+                presentPrediction(clientEntity, regionalWeatherSystem.getCell(x, z));
+            } else if (clientEntity.hasComponent(WeatherPredictionComponent.class)) {
+                clientEntity.removeComponent(WeatherPredictionComponent.class);
+                // the client may have predicted a different state than the one last saved here, so always send it
+                presentState(clientEntity, x, z, true);
+            } else {
+                presentState(clientEntity, x, z, false);
+            }
+        }
+    }
+
+    private void presentState(EntityRef clientEntity, int x, int z, boolean force) {
+        int packedState = WeatherStateComponent.pack(weatherManagerSystem.getCondition(x, z));
+        WeatherStateComponent state = clientEntity.getComponent(WeatherStateComponent.class);
+        if (state == null) {
+            state = new WeatherStateComponent();
+            state.packedState = packedState;
+            clientEntity.addComponent(state);
+        } else if (force || state.packedState != packedState) {
+            state.packedState = packedState;
+            clientEntity.saveComponent(state);
+        }
+    }
+
+    private void presentPrediction(EntityRef clientEntity, WeatherCell cell) {
+        if (!clientEntity.hasComponent(WeatherStateComponent.class)) {
+            // the client writes its prediction into its copy of the state
+            clientEntity.addComponent(new WeatherStateComponent());
+        }
+
+        MutableWeatherCondition override = weatherManagerSystem.getOverride();
+        int overrideState = override != null ? WeatherStateComponent.pack(override) : 0;
+        long overrideEnd = override != null ? weatherManagerSystem.getCurrentEnd() : 0;
+
+        WeatherPredictionComponent prediction = clientEntity.getComponent(WeatherPredictionComponent.class);
+        if (prediction != null && prediction.seed == cell.getSeed() && prediction.meanDuration == cell.getMeanDuration()
+                && prediction.overrideState == overrideState && prediction.overrideEnd == overrideEnd) {
+            return;
+        }
+        if (prediction == null) {
+            prediction = new WeatherPredictionComponent();
+        }
+        prediction.seed = cell.getSeed();
+        prediction.cellX = cell.getCellX();
+        prediction.cellZ = cell.getCellZ();
+        prediction.temperature = cell.getTemperature();
+        prediction.meanDuration = cell.getMeanDuration();
+        prediction.overrideState = overrideState;
+        prediction.overrideEnd = overrideEnd;
+        clientEntity.addOrSaveComponent(prediction);
+    }
+}
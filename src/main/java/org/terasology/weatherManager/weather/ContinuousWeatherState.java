@@ -0,0 +1,89 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.weather;
+
+import org.joml.Vector2f;
+
+/**
+ * Continuous representation of the weather, suited for smooth interpolation between two {@link WeatherCondition}s.
+ */
+public final class ContinuousWeatherState {
+
+    /**
+     * The type of downfall. While downfall fades out, this is still the type of the fading downfall.
+     */
+    public DownfallCondition.DownfallType downfallType = DownfallCondition.DownfallType.NONE;
+
+    /**
+     * Intensity of the downfall, from 0 (none) to 1 (heavy).
+     */
+    public float intensity;
+
+    /**
+     * Cloud cover, from 0 (clear sky) to 1 (densely clouded).
+     */
+    public float cloudCover;
+
+    public final Vector2f wind = new Vector2f();
+
+    /**
+     * @param condition the condition to take the values from
+     * @return this
+     */
+    public ContinuousWeatherState set(WeatherCondition condition) {
+        DownfallCondition.DownfallValues downfall = condition.downfallCondition.getDownfallValues();
+        downfallType = downfall.type;
+        intensity = downfall.amount.getNumericValue();
+        cloudCover = condition.cloudiness.getNumericValue();
+        wind.set(condition.wind);
+        return this;
+    }
+
+    /**
+     * @param condition the condition to take the values from
+     * @return this
+     */
+    public ContinuousWeatherState set(MutableWeatherCondition condition) {
+        downfallType = condition.downfallAmount == Severity.NONE ? DownfallCondition.DownfallType.NONE : condition.downfallType;
+        intensity = condition.downfallAmount.getNumericValue();
+        cloudCover = condition.cloudiness.getNumericValue();
+        wind.set(condition.wind);
+        return this;
+    }
+
+    /**
+     * @param other the state to copy
+     * @return this
+     */
+    public ContinuousWeatherState set(ContinuousWeatherState other) {
+        downfallType = other.downfallType;
+        intensity = other.intensity;
+        cloudCover = other.cloudCover;
+        wind.set(other.wind);
+        return this;
+    }
+
+    /**
+     * Interpolates linearly between two states and stores the result in this object.
+     *
+     * @param from the state at t = 0
+     * @param to the state at t = 1
+     * @param t the interpolation factor in [0, 1]
+     * @return this
+     */
+    public ContinuousWeatherState lerp(ContinuousWeatherState from, ContinuousWeatherState to, float t) {
+        intensity = from.intensity + (to.intensity - from.intensity) * t;
+        cloudCover = from.cloudCover + (to.cloudCover - from.cloudCover) * t;
+        wind.set(from.wind.x + (to.wind.x - from.wind.x) * t, from.wind.y + (to.wind.y - from.wind.y) * t);
+
+        // fading downfall keeps its type until it has stopped
+        boolean fadingOut = to.downfallType == DownfallCondition.DownfallType.NONE && t < 1;
+        downfallType = fadingOut ? from.downfallType : to.downfallType;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (intensity %.2f), cloud cover %.2f, wind %s", downfallType, intensity, cloudCover, wind);
+    }
+}
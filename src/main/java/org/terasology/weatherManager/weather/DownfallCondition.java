@@ -5,18 +5,32 @@ package org.terasology.weatherManager.weather;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Pseudo enum class to describe different downfall conditions of the weather.
  * <p>
  * Can be compared with "==", since only one instance will be created for each combination of values.
  */
 public final class DownfallCondition {
-    private static final Map<DownfallValues, DownfallCondition> INSTANCES = new HashMap<>();
+    private static final int TYPE_COUNT = DownfallType.values().length;
+    private static final int AMOUNT_COUNT = Severity.values().length;
+
+    /**
+     * All instances, indexed by {@link #index(Severity, DownfallType, boolean)}. Filled once when the class is loaded, so
+     * {@link #get(Severity, DownfallType, boolean)} needs neither locking nor allocation.
+     */
+    private static final DownfallCondition[] INSTANCES = new DownfallCondition[TYPE_COUNT * AMOUNT_COUNT * 2];
+
+    static {
+        for (Severity amount : Severity.values()) {
+            for (DownfallType type : DownfallType.values()) {
+                for (boolean withThunder : new boolean[] {false, true}) {
+                    INSTANCES[index(amount, type, withThunder)] = new DownfallCondition(new DownfallValues(amount, type, withThunder));
+                }
+            }
+        }
+    }
 
-    // this needs to be executed after creating INSTANCES, otherwise we'll run into an NPE in get()
+    // this needs to be executed after filling INSTANCES, otherwise we'll run into an NPE in get()
     @SuppressWarnings("checkstyle:DeclarationOrder")
     public static final DownfallCondition NO_DOWNFALL = get(Severity.NONE, DownfallType.NONE, false);
 
@@ -50,7 +64,7 @@ public final class DownfallCondition {
 
     public static DownfallCondition get(final Severity amount, final DownfallType type, final boolean withThunder) {
         // check arguments
-        Preconditions.checkArgument(!withThunder || (amount == Severity.NONE),
+        Preconditions.checkArgument(!withThunder || (amount != Severity.NONE),
                 "Severity == NONE and withThunder == true is an illegal combination."
         );
 
@@ -63,20 +77,13 @@ public final class DownfallCondition {
                 "Function does not accept null arguments."
         );
 
-        // body
-        final DownfallValues values = new DownfallValues(amount, type, withThunder);
-
-        if (INSTANCES.containsKey(values)) {
-            return INSTANCES.get(values);
-        } else {
-            DownfallCondition ret = new DownfallCondition(values);
-            INSTANCES.put(values, ret);
-            return ret;
-        }
+        return INSTANCES[index(amount, type, withThunder)];
+    }
 
-        /* cooler Java8 version that is not supported yet
-        return INSTANCES.computeIfAbsent(values, (DownfallValues v) -> new DownfallCondition(v) );
-        */
+    private static int index(final Severity amount, final DownfallType type, final boolean withThunder) {
+        return type.ordinal()
+                + TYPE_COUNT * amount.ordinal()
+                + TYPE_COUNT * AMOUNT_COUNT * (withThunder ? 1 : 0);
     }
 
     public DownfallValues getDownfallValues() {
@@ -141,9 +148,7 @@ public final class DownfallCondition {
 
         @Override
         public int hashCode() {
-            return type.ordinal() +
-                    DownfallType.values().length * amount.ordinal() +
-                    DownfallType.values().length * Severity.values().length * (withThunder ? 1 : 0);
+            return index(amount, type, withThunder);
         }
     }
 }
@@ -0,0 +1,69 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.weather;
+
+/**
+ * Chooses the type of downfall from the temperature, since the weather generator only decides on the amount.
+ * <p>
+ * Temperatures are those of the world generator's surface temperature facet, where 0 is the coldest and 1 the warmest
+ * climate.
+ */
+public final class DownfallTypes {
+
+    /**
+     * Temperature used where the world generator provides none, which gives rain.
+     */
+    public static final float DEFAULT_TEMPERATURE = 0.5f;
+
+    /**
+     * Below this temperature, downfall is snow.
+     */
+    private static final float SNOW_TEMPERATURE = 0.25f;
+
+    /**
+     * From this temperature on, heavy thunderstorms produce hail.
+     */
+    private static final float HAIL_TEMPERATURE = 0.6f;
+
+    private DownfallTypes() {
+    }
+
+    /**
+     * @param amount the amount of downfall
+     * @param withThunder whether there is thunder
+     * @param temperature the temperature, see {@link DownfallTypes}
+     * @return the type of downfall at that temperature
+     */
+    public static DownfallCondition.DownfallType select(Severity amount, boolean withThunder, float temperature) {
+        if (amount == Severity.NONE) {
+            return DownfallCondition.DownfallType.NONE;
+        }
+        if (isFreezing(temperature)) {
+            return DownfallCondition.DownfallType.SNOW;
+        }
+        if (withThunder && amount == Severity.HEAVY && temperature >= HAIL_TEMPERATURE) {
+            return DownfallCondition.DownfallType.HAIL;
+        }
+        return DownfallCondition.DownfallType.RAIN;
+    }
+
+    /**
+     * @param temperature the temperature, see {@link DownfallTypes}
+     * @return whether downfall at that temperature is snow
+     */
+    public static boolean isFreezing(float temperature) {
+        return temperature < SNOW_TEMPERATURE;
+    }
+
+    /**
+     * Sets the type of downfall of a condition according to the temperature.
+     *
+     * @param condition the condition to change
+     * @param temperature the temperature, see {@link DownfallTypes}
+     * @return condition
+     */
+    public static MutableWeatherCondition apply(MutableWeatherCondition condition, float temperature) {
+        condition.downfallType = select(condition.downfallAmount, condition.withThunder, temperature);
+        return condition;
+    }
+}
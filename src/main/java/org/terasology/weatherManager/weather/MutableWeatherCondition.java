@@ -0,0 +1,74 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.weather;
+
+import org.joml.Vector2f;
+
+/**
+ * Mutable counterpart of {@link ConditionAndDuration}. Weather generators can write into a caller-provided instance, so
+ * that generating many conditions (e.g. for a forecast) does not produce garbage.
+ */
+public final class MutableWeatherCondition {
+
+    public Severity cloudiness = Severity.NONE;
+    public Severity downfallAmount = Severity.NONE;
+    public DownfallCondition.DownfallType downfallType = DownfallCondition.DownfallType.NONE;
+    public boolean withThunder;
+    public final Vector2f wind = new Vector2f();
+    public float duration;
+
+    /**
+     * @return the downfall condition described by this object
+     */
+    public DownfallCondition getDownfallCondition() {
+        if (downfallAmount == Severity.NONE) {
+            return DownfallCondition.NO_DOWNFALL;
+        }
+        return DownfallCondition.get(downfallAmount, downfallType, withThunder);
+    }
+
+    /**
+     * Copies all values of a given condition into this object.
+     *
+     * @param other the condition to copy
+     * @return this
+     */
+    public MutableWeatherCondition set(ConditionAndDuration other) {
+        DownfallCondition.DownfallValues downfall = other.condition.downfallCondition.getDownfallValues();
+        cloudiness = other.condition.cloudiness;
+        downfallAmount = downfall.amount;
+        downfallType = downfall.type;
+        withThunder = downfall.withThunder;
+        wind.set(other.condition.wind);
+        duration = other.duration;
+        return this;
+    }
+
+    /**
+     * Copies all values of another mutable condition into this object.
+     *
+     * @param other the condition to copy
+     * @return this
+     */
+    public MutableWeatherCondition set(MutableWeatherCondition other) {
+        cloudiness = other.cloudiness;
+        downfallAmount = other.downfallAmount;
+        downfallType = other.downfallType;
+        withThunder = other.withThunder;
+        wind.set(other.wind);
+        duration = other.duration;
+        return this;
+    }
+
+    /**
+     * @return an immutable copy of this condition
+     */
+    public ConditionAndDuration toConditionAndDuration() {
+        return new ConditionAndDuration(new WeatherCondition(cloudiness, getDownfallCondition(), wind), duration);
+    }
+
+    @Override
+    public String toString() {
+        return toConditionAndDuration().toString();
+    }
+}
@@ -0,0 +1,130 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.weather;
+
+/**
+ * Encodes a weather condition and its duration into a single {@code long}, so that large numbers of conditions can be
+ * stored in primitive arrays, save data or network messages.
+ * <p>
+ * Layout, from the least significant bit: cloudiness (2), downfall type (2), downfall amount (2), thunder (1), wind x
+ * (12), wind y (12), unused (1), duration as float bits (32). The wind is quantized to steps of 1/256 in the range
+ * [-8, 8); everything else is stored exactly.
+ */
+public final class PackedWeatherCondition {
+
+    /**
+     * Resolution of the quantized wind components.
+     */
+    private static final float WIND_STEP = 1 / 256f;
+    private static final int WIND_BITS = 12;
+    private static final int WIND_MASK = (1 << WIND_BITS) - 1;
+    private static final int WIND_MIN = -(1 << (WIND_BITS - 1));
+    private static final int WIND_MAX = (1 << (WIND_BITS - 1)) - 1;
+
+    private static final int CLOUDINESS_SHIFT = 0;
+    private static final int TYPE_SHIFT = 2;
+    private static final int AMOUNT_SHIFT = 4;
+    private static final int THUNDER_SHIFT = 6;
+    private static final int WIND_X_SHIFT = 7;
+    private static final int WIND_Y_SHIFT = WIND_X_SHIFT + WIND_BITS;
+    private static final int DURATION_SHIFT = 32;
+
+    private static final Severity[] SEVERITIES = Severity.values();
+    private static final DownfallCondition.DownfallType[] TYPES = DownfallCondition.DownfallType.values();
+
+    private PackedWeatherCondition() {
+    }
+
+    /**
+     * @param condition the condition to encode
+     * @return the packed condition
+     */
+    public static long encode(ConditionAndDuration condition) {
+        DownfallCondition.DownfallValues downfall = condition.condition.downfallCondition.getDownfallValues();
+        return encode(condition.condition.cloudiness, downfall.type, downfall.amount, downfall.withThunder,
+                condition.condition.wind.x(), condition.condition.wind.y(), condition.duration);
+    }
+
+    /**
+     * @param condition the condition to encode
+     * @return the packed condition
+     */
+    public static long encode(MutableWeatherCondition condition) {
+        return encode(condition.cloudiness, condition.downfallType, condition.downfallAmount, condition.withThunder,
+                condition.wind.x, condition.wind.y, condition.duration);
+    }
+
+    private static long encode(Severity cloudiness, DownfallCondition.DownfallType type, Severity amount, boolean withThunder,
+                               float windX, float windY, float duration) {
+        long low = cloudiness.ordinal() << CLOUDINESS_SHIFT
+                | type.ordinal() << TYPE_SHIFT
+                | amount.ordinal() << AMOUNT_SHIFT
+                | (withThunder ? 1 : 0) << THUNDER_SHIFT
+                | quantizeWind(windX) << WIND_X_SHIFT
+                | quantizeWind(windY) << WIND_Y_SHIFT;
+        return low | (long) Float.floatToRawIntBits(duration) << DURATION_SHIFT;
+    }
+
+    /**
+     * Decodes a packed condition without allocating.
+     *
+     * @param packed the packed condition
+     * @param dest will hold the decoded condition
+     * @return dest
+     */
+    public static MutableWeatherCondition decode(long packed, MutableWeatherCondition dest) {
+        dest.cloudiness = getCloudiness(packed);
+        dest.downfallType = getDownfallType(packed);
+        dest.downfallAmount = getDownfallAmount(packed);
+        dest.withThunder = isWithThunder(packed);
+        dest.wind.set(getWindX(packed), getWindY(packed));
+        dest.duration = getDuration(packed);
+        return dest;
+    }
+
+    /**
+     * @param packed the packed condition
+     * @return the decoded condition
+     */
+    public static ConditionAndDuration decode(long packed) {
+        return decode(packed, new MutableWeatherCondition()).toConditionAndDuration();
+    }
+
+    public static Severity getCloudiness(long packed) {
+        return SEVERITIES[(int) (packed >>> CLOUDINESS_SHIFT) & 3];
+    }
+
+    public static DownfallCondition.DownfallType getDownfallType(long packed) {
+        return TYPES[(int) (packed >>> TYPE_SHIFT) & 3];
+    }
+
+    public static Severity getDownfallAmount(long packed) {
+        return SEVERITIES[(int) (packed >>> AMOUNT_SHIFT) & 3];
+    }
+
+    public static boolean isWithThunder(long packed) {
+        return ((packed >>> THUNDER_SHIFT) & 1) != 0;
+    }
+
+    public static float getWindX(long packed) {
+        return dequantizeWind((int) (packed >>> WIND_X_SHIFT));
+    }
+
+    public static float getWindY(long packed) {
+        return dequantizeWind((int) (packed >>> WIND_Y_SHIFT));
+    }
+
+    public static float getDuration(long packed) {
+        return Float.intBitsToFloat((int) (packed >>> DURATION_SHIFT));
+    }
+
+    private static int quantizeWind(float value) {
+        int quantized = Math.round(value / WIND_STEP);
+        return Math.max(WIND_MIN, Math.min(WIND_MAX, quantized)) & WIND_MASK;
+    }
+
+    private static float dequantizeWind(int bits) {
+        // sign extend the 12 bit value
+        return ((bits & WIND_MASK) << (32 - WIND_BITS) >> (32 - WIND_BITS)) * WIND_STEP;
+    }
+}
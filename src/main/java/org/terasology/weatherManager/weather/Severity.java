@@ -19,6 +19,13 @@ public enum Severity {
         this.numericValue = numericValue;
     }
 
+    /**
+     * @return the severity as a number from 0 (none) to 1 (heavy)
+     */
+    public float getNumericValue() {
+        return numericValue;
+    }
+
     @Override
     public String toString() {
         return string;
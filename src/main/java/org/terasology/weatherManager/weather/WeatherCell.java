@@ -0,0 +1,231 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.weather;
+
+import org.terasology.weatherManager.systems.MarkovChainWeatherGenerator;
+
+/**
+ * A square region of the world with its own weather. Each cell has its own seekable weather generator, so the weather of a
+ * cell can be re-created at any time after the cell was evicted.
+ * <p>
+ * The world time is divided into slots of the mean duration, and the condition of a slot is the generated condition with
+ * the index of the slot. The random durations of the generator are not used. The weather of a cell therefore only depends
+ * on its seed and the time, whether the cell stepped from slot to slot or was just created. The slots are shifted by a
+ * phase derived from the seed, so that neighbouring cells do not all change at the same time.
+ */
+public final class WeatherCell {
+
+    /**
+     * Elevation of a cell for which the world generator provides none.
+     */
+    public static final int UNKNOWN_ELEVATION = Integer.MIN_VALUE;
+
+    /**
+     * Maximum time in milliseconds it takes to blend from the condition of one slot to the next.
+     */
+    private static final long TRANSITION_TIME = 10000;
+
+    private final int cellX;
+    private final int cellZ;
+    private final MarkovChainWeatherGenerator generator;
+    private final MutableWeatherCondition current = new MutableWeatherCondition();
+    private final float meanDuration;
+    private final long phase;
+    private final float temperature;
+    private final int elevation;
+
+    // the slot of the current condition
+    private long slot = -1;
+
+    // smooth interpolation from the previous slot, starting at the beginning of the current slot
+    private final ContinuousWeatherState transitionFrom = new ContinuousWeatherState();
+    private final ContinuousWeatherState transitionTo = new ContinuousWeatherState();
+    private long transitionStart;
+    private long lastAccessTime;
+    private long nextStrikeTime = Long.MAX_VALUE;
+
+    /**
+     * @param cellX the x coordinate of the cell (in cells, not blocks)
+     * @param cellZ the z coordinate of the cell (in cells, not blocks)
+     * @param generator a seekable generator for this cell
+     * @param meanDuration the mean duration of the generated conditions in milliseconds
+     * @param temperature the temperature of the cell, which decides on the type of downfall, see {@link DownfallTypes}
+     * @param elevation the generated surface height at the center of the cell, {@link #UNKNOWN_ELEVATION} if unknown
+     * @param time the current world time in milliseconds
+     */
+    public WeatherCell(int cellX, int cellZ, MarkovChainWeatherGenerator generator, float meanDuration, float temperature,
+                       int elevation, long time) {
+        this.cellX = cellX;
+        this.cellZ = cellZ;
+        this.generator = generator;
+        this.meanDuration = meanDuration;
+        this.phase = Math.floorMod(generator.getSeed(), (long) meanDuration);
+        this.temperature = temperature;
+        this.elevation = elevation;
+        update(time);
+    }
+
+    /**
+     * Advances the weather of this cell to the given time. Stepping to the next slot takes a single generated condition,
+     * any other slot is sought directly.
+     *
+     * @param time the current world time in milliseconds
+     */
+    public void update(long time) {
+        lastAccessTime = time;
+        long target = getSlot(time);
+        if (target == slot) {
+            return;
+        }
+        transitionStart = getSlotStart(target);
+        if (target == slot + 1) {
+            getWeatherState(transitionStart, transitionFrom);
+            transitionTo.set(getCondition(target, current));
+        } else {
+            // nothing to blend from, e.g. for a new cell
+            transitionTo.set(getCondition(target, current));
+            transitionFrom.set(transitionTo);
+        }
+        slot = target;
+    }
+
+    /**
+     * Computes the weather of this cell, smoothly blended from the previous slot at the start of the current one. Only
+     * valid for times within the current slot.
+     *
+     * @param time the world time in milliseconds
+     * @param dest will hold the weather state
+     * @return dest
+     */
+    public ContinuousWeatherState getWeatherState(long time, ContinuousWeatherState dest) {
+        long transitionLength = Math.max(1, Math.min(TRANSITION_TIME, (long) (meanDuration / 2)));
+        float t = (time - transitionStart) / (float) transitionLength;
+        return dest.lerp(transitionFrom, transitionTo, Math.max(0, Math.min(1, t)));
+    }
+
+    /**
+     * Generates the condition of a slot. This moves the generator, so the next {@link #update(long)} may have to seek.
+     *
+     * @param target the slot, see {@link #getSlot(long)}
+     * @param dest will hold the condition
+     * @return dest
+     */
+    public MutableWeatherCondition getCondition(long target, MutableWeatherCondition dest) {
+        if (generator.getIndex() != target) {
+            generator.seek(target);
+        }
+        DownfallTypes.apply(generator.getNext(dest), temperature);
+        dest.duration = meanDuration;
+        return dest;
+    }
+
+    /**
+     * Looks ahead at the conditions of the slots after the current one. This moves the generator, so the next
+     * {@link #update(long)} may have to seek.
+     *
+     * @param count the number of slots to look ahead
+     * @return the conditions of the next slots, in order
+     */
+    public ConditionAndDuration[] getForecast(int count) {
+        if (generator.getIndex() != slot + 1) {
+            generator.seek(slot + 1);
+        }
+        MutableWeatherCondition[] conditions = new MutableWeatherCondition[count];
+        for (int i = 0; i < count; i++) {
+            conditions[i] = new MutableWeatherCondition();
+        }
+        generator.forecast(conditions);
+
+        ConditionAndDuration[] result = new ConditionAndDuration[count];
+        for (int i = 0; i < count; i++) {
+            DownfallTypes.apply(conditions[i], temperature).duration = meanDuration;
+            result[i] = conditions[i].toConditionAndDuration();
+        }
+        return result;
+    }
+
+    /**
+     * @param time a world time in milliseconds, not negative
+     * @return the slot that contains the given time
+     */
+    public long getSlot(long time) {
+        return (long) Math.floor((time + phase) / (double) meanDuration);
+    }
+
+    /**
+     * @param target a slot, see {@link #getSlot(long)}
+     * @return the world time in milliseconds at which the slot starts
+     */
+    public long getSlotStart(long target) {
+        return (long) Math.ceil(target * (double) meanDuration) - phase;
+    }
+
+    public int getCellX() {
+        return cellX;
+    }
+
+    public int getCellZ() {
+        return cellZ;
+    }
+
+    /**
+     * @return the seed of the generator of this cell
+     */
+    public long getSeed() {
+        return generator.getSeed();
+    }
+
+    /**
+     * @return the mean duration of the conditions of this cell in milliseconds
+     */
+    public float getMeanDuration() {
+        return meanDuration;
+    }
+
+    /**
+     * @return the temperature of this cell, see {@link DownfallTypes}
+     */
+    public float getTemperature() {
+        return temperature;
+    }
+
+    /**
+     * @return the generated surface height at the center of this cell, {@link #UNKNOWN_ELEVATION} if unknown
+     */
+    public int getElevation() {
+        return elevation;
+    }
+
+    /**
+     * @return the current condition of this cell - must not be modified
+     */
+    public MutableWeatherCondition getCondition() {
+        return current;
+    }
+
+    /**
+     * @return the world time in milliseconds at which the current condition ends
+     */
+    public long getChangeTime() {
+        return getSlotStart(slot + 1);
+    }
+
+    /**
+     * @return the world time in milliseconds at which this cell was updated last
+     */
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    /**
+     * @return the world time in milliseconds of the next lightning strike in this cell, {@link Long#MAX_VALUE} if none is
+     *         scheduled
+     */
+    public long getNextStrikeTime() {
+        return nextStrikeTime;
+    }
+
+    public void setNextStrikeTime(long nextStrikeTime) {
+        this.nextStrikeTime = nextStrikeTime;
+    }
+}
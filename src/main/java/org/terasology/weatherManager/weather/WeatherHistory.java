@@ -0,0 +1,122 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.weather;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Bounded record of past weather conditions and the world times at which they started, backed by primitive arrays.
+ * <p>
+ * Conditions are stored packed with {@link PackedWeatherCondition}. A condition holds from its start time until the start
+ * time of the next one; the latest condition holds until now. Appending is O(1) and overwrites the oldest entry once the
+ * history is full, looking up the condition at a given time is a binary search.
+ */
+public final class WeatherHistory {
+
+    private final long[] startTimes;
+    private final long[] conditions;
+    private int start;
+    private int size;
+
+    /**
+     * @param capacity the maximum number of conditions held
+     */
+    public WeatherHistory(int capacity) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+        startTimes = new long[capacity];
+        conditions = new long[capacity];
+    }
+
+    /**
+     * Records a condition. A condition that starts at the same time as the latest one replaces it. If the world time was
+     * set back before the latest entry, the history no longer describes the past and is cleared.
+     *
+     * @param startTime the world time in milliseconds at which the condition started
+     * @param packed the condition, packed with {@link PackedWeatherCondition}
+     */
+    public void add(long startTime, long packed) {
+        if (size > 0) {
+            long latestStart = startTimes[slot(size - 1)];
+            if (startTime < latestStart) {
+                clear();
+            } else if (startTime == latestStart) {
+                conditions[slot(size - 1)] = packed;
+                return;
+            }
+        }
+        if (size < conditions.length) {
+            size++;
+        } else {
+            start = (start + 1) % conditions.length;
+        }
+        startTimes[slot(size - 1)] = startTime;
+        conditions[slot(size - 1)] = packed;
+    }
+
+    /**
+     * @param time a world time in milliseconds
+     * @return the position of the condition that held at that time, 0 being the oldest, or -1 if the time is before the
+     *         oldest recorded condition
+     */
+    public int indexAt(long time) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (startTimes[slot(mid)] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * @param time a world time in milliseconds
+     * @param dest will hold the condition that held at that time
+     * @return dest, or null if the time is before the oldest recorded condition
+     */
+    public MutableWeatherCondition getConditionAt(long time, MutableWeatherCondition dest) {
+        int i = indexAt(time);
+        if (i < 0) {
+            return null;
+        }
+        return PackedWeatherCondition.decode(conditions[slot(i)], dest);
+    }
+
+    /**
+     * @param i the position in the history, 0 being the oldest condition
+     * @return the packed condition at that position
+     */
+    public long getPacked(int i) {
+        Preconditions.checkElementIndex(i, size);
+        return conditions[slot(i)];
+    }
+
+    /**
+     * @param i the position in the history, 0 being the oldest condition
+     * @return the world time in milliseconds at which the condition at that position started
+     */
+    public long getStartTime(int i) {
+        Preconditions.checkElementIndex(i, size);
+        return startTimes[slot(i)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return conditions.length;
+    }
+
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+
+    private int slot(int i) {
+        return (start + i) % conditions.length;
+    }
+}
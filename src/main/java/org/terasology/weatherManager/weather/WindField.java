@@ -0,0 +1,75 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.weather;
+
+import org.joml.Vector2f;
+import org.joml.Vector2fc;
+import org.terasology.math.TeraMath;
+
+/**
+ * Continuous wind for the weather effects. The base wind is set whenever the weather changes, gusts are layered on top as
+ * a cheap function of time.
+ * <p>
+ * The gusts repeat after {@link #GUST_PERIOD} milliseconds, so they can be sampled directly from the world time without
+ * losing float precision in long running worlds. Sampling does not allocate, so it can be read every frame.
+ */
+public final class WindField {
+
+    /**
+     * Relative strength of the gusts compared to the base wind.
+     */
+    private static final float GUST_STRENGTH = 0.35f;
+
+    /**
+     * Maximum deviation of the gust direction from the base wind, in radians.
+     */
+    private static final float GUST_ANGLE = TeraMath.PI / 12;
+
+    /**
+     * Time in milliseconds after which the gusts repeat.
+     */
+    private static final long GUST_PERIOD = 600000;
+
+    // the frequencies are whole multiples of the gust period, in radians per second
+    private static final float PERIOD_FREQUENCY = (float) (2 * Math.PI * 1000 / GUST_PERIOD);
+    private static final float GUST_FREQUENCY_1 = 67 * PERIOD_FREQUENCY;
+    private static final float GUST_FREQUENCY_2 = 181 * PERIOD_FREQUENCY;
+    private static final float TURN_FREQUENCY = 35 * PERIOD_FREQUENCY;
+
+    private final Vector2f baseWind = new Vector2f();
+
+    /**
+     * @param wind the new base wind, usually the wind of the current {@link WeatherCondition}
+     */
+    public void setBaseWind(Vector2fc wind) {
+        baseWind.set(wind);
+    }
+
+    /**
+     * @return the base wind without gusts
+     */
+    public Vector2fc getBaseWind() {
+        return baseWind;
+    }
+
+    /**
+     * Samples the wind at a given point in time.
+     *
+     * @param worldTime the world time in milliseconds
+     * @param dest will hold the result
+     * @return dest
+     */
+    public Vector2f sample(long worldTime, Vector2f dest) {
+        float time = Math.floorMod(worldTime, GUST_PERIOD) / 1000f;
+
+        // frequencies without a small common divisor give an irregular looking gust pattern within the period
+        float gust = 1.0f + GUST_STRENGTH * (float) (Math.sin(time * GUST_FREQUENCY_1) * Math.sin(time * GUST_FREQUENCY_2 + 1.3f));
+        float angle = GUST_ANGLE * (float) Math.sin(time * TURN_FREQUENCY);
+
+        float cos = (float) Math.cos(angle);
+        float sin = (float) Math.sin(angle);
+
+        return dest.set((baseWind.x * cos - baseWind.y * sin) * gust,
+                (baseWind.x * sin + baseWind.y * cos) * gust);
+    }
+}
@@ -0,0 +1,51 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.weatherManager.weather.DownfallCondition;
+import org.terasology.weatherManager.weather.DownfallTypes;
+import org.terasology.weatherManager.weather.Severity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DownfallConditionTest {
+
+    @Test
+    public void instancesAreInterned() {
+        for (Severity amount : Severity.values()) {
+            if (amount == Severity.NONE) {
+                continue;
+            }
+            for (DownfallCondition.DownfallType type : DownfallCondition.DownfallType.values()) {
+                for (boolean withThunder : new boolean[] {false, true}) {
+                    DownfallCondition condition = DownfallCondition.get(amount, type, withThunder);
+                    assertSame(condition, DownfallCondition.get(amount, type, withThunder));
+
+                    DownfallCondition.DownfallValues values = condition.getDownfallValues();
+                    assertEquals(amount, values.amount);
+                    assertEquals(type, values.type);
+                    assertEquals(withThunder, values.withThunder);
+                }
+            }
+        }
+        assertSame(DownfallCondition.NO_DOWNFALL, DownfallCondition.get(Severity.NONE, DownfallCondition.DownfallType.NONE, false));
+    }
+
+    @Test
+    public void typeFollowsTemperature() {
+        assertEquals(DownfallCondition.DownfallType.NONE, DownfallTypes.select(Severity.NONE, false, 0f));
+        assertEquals(DownfallCondition.DownfallType.SNOW, DownfallTypes.select(Severity.LIGHT, false, 0.1f));
+        assertEquals(DownfallCondition.DownfallType.RAIN, DownfallTypes.select(Severity.HEAVY, false, 0.9f));
+        assertEquals(DownfallCondition.DownfallType.HAIL, DownfallTypes.select(Severity.HEAVY, true, 0.9f));
+        assertEquals(DownfallCondition.DownfallType.RAIN, DownfallTypes.select(Severity.HEAVY, true, DownfallTypes.DEFAULT_TEMPERATURE));
+    }
+
+    @Test
+    public void thunderRequiresDownfall() {
+        assertThrows(IllegalArgumentException.class,
+                () -> DownfallCondition.get(Severity.NONE, DownfallCondition.DownfallType.NONE, true));
+    }
+}
@@ -0,0 +1,90 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.weatherManager.systems.MarkovChainWeatherGenerator;
+import org.terasology.weatherManager.weather.ConditionAndDuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MarkovChainWeatherGeneratorTest {
+
+    private static final long SEED = 3456;
+    private static final float MEAN_DURATION = 6.0f;
+    private static final int CHECKPOINT_INTERVAL = 32;
+
+    @Test
+    public void forecastDoesNotChangeSequence() {
+        MarkovChainWeatherGenerator reference = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION);
+        MarkovChainWeatherGenerator forecasting = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION);
+
+        forecasting.getNext();
+        ConditionAndDuration[] forecast = forecasting.forecast(10);
+        reference.getNext();
+
+        for (int i = 0; i < 10; i++) {
+            String expected = reference.getNext().toString();
+            assertEquals(expected, forecast[i].toString());
+            assertEquals(expected, forecasting.getNext().toString());
+        }
+    }
+
+    @Test
+    public void seekMatchesSequentialGeneration() {
+        MarkovChainWeatherGenerator sequential = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION, CHECKPOINT_INTERVAL);
+        String[] expected = new String[3 * CHECKPOINT_INTERVAL];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = sequential.getNext().toString();
+        }
+
+        MarkovChainWeatherGenerator seeking = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION, CHECKPOINT_INTERVAL);
+        for (int target : new int[] {70, 5, CHECKPOINT_INTERVAL, 2 * CHECKPOINT_INTERVAL - 1, 0}) {
+            seeking.seek(target);
+            assertEquals(target, seeking.getIndex());
+            assertEquals(expected[target], seeking.getNext().toString());
+        }
+    }
+
+    @Test
+    public void seekAcrossCheckpointMatchesSequentialGeneration() {
+        MarkovChainWeatherGenerator sequential = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION, CHECKPOINT_INTERVAL);
+        int first = 2 * CHECKPOINT_INTERVAL - 3;
+        for (int i = 0; i < first; i++) {
+            sequential.getNext();
+        }
+
+        MarkovChainWeatherGenerator seeking = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION, CHECKPOINT_INTERVAL);
+        seeking.seek(first);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(sequential.getNext().toString(), seeking.getNext().toString());
+            assertEquals(sequential.getChainState(), seeking.getChainState());
+        }
+    }
+
+    @Test
+    public void restoreContinuesSequence() {
+        assertRestoreContinuesSequence(45);
+    }
+
+    @Test
+    public void restoreAtCheckpointContinuesSequence() {
+        assertRestoreContinuesSequence(2 * CHECKPOINT_INTERVAL);
+    }
+
+    private static void assertRestoreContinuesSequence(int consumed) {
+        MarkovChainWeatherGenerator original = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION, CHECKPOINT_INTERVAL);
+        for (int i = 0; i < consumed; i++) {
+            original.getNext();
+        }
+        original.forecast(5);
+
+        MarkovChainWeatherGenerator restored = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION, CHECKPOINT_INTERVAL);
+        restored.restore(original.getIndex(), original.getChainState());
+        assertEquals(original.getWind(), restored.getWind());
+
+        for (int i = 0; i < 2 * CHECKPOINT_INTERVAL; i++) {
+            assertEquals(original.getNext().toString(), restored.getNext().toString());
+        }
+    }
+}
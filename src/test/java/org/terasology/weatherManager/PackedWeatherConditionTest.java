@@ -0,0 +1,32 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.weatherManager.systems.MarkovChainWeatherGenerator;
+import org.terasology.weatherManager.weather.MutableWeatherCondition;
+import org.terasology.weatherManager.weather.PackedWeatherCondition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PackedWeatherConditionTest {
+
+    @Test
+    public void encodeDecodeRoundTrip() {
+        MarkovChainWeatherGenerator generator = new MarkovChainWeatherGenerator(42, 1000f);
+        MutableWeatherCondition condition = new MutableWeatherCondition();
+        MutableWeatherCondition decoded = new MutableWeatherCondition();
+        for (int i = 0; i < 1000; i++) {
+            generator.getNext(condition);
+            PackedWeatherCondition.decode(PackedWeatherCondition.encode(condition), decoded);
+
+            assertEquals(condition.cloudiness, decoded.cloudiness);
+            assertEquals(condition.downfallType, decoded.downfallType);
+            assertEquals(condition.downfallAmount, decoded.downfallAmount);
+            assertEquals(condition.withThunder, decoded.withThunder);
+            assertEquals(condition.duration, decoded.duration);
+            assertEquals(condition.wind.x, decoded.wind.x, 1 / 512f);
+            assertEquals(condition.wind.y, decoded.wind.y, 1 / 512f);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.weatherManager.systems.MarkovChainWeatherGenerator;
+import org.terasology.weatherManager.weather.ConditionAndDuration;
+import org.terasology.weatherManager.weather.WeatherCell;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WeatherCellTest {
+
+    private static final long SEED = 12354;
+    private static final float MEAN_DURATION = 5000;
+    private static final int CHECKPOINT_INTERVAL = 32;
+
+    @Test
+    public void recreatedCellMatchesLiveCell() {
+        WeatherCell live = createCell(0);
+        for (long time = 0; time < 200 * (long) MEAN_DURATION; time += 1700) {
+            live.update(time);
+            if (time / 1700 % 7 == 0) {
+                WeatherCell recreated = createCell(time);
+                assertEquals(live.getCondition().toString(), recreated.getCondition().toString());
+                assertEquals(live.getChangeTime(), recreated.getChangeTime());
+            }
+        }
+    }
+
+    @Test
+    public void slotsCoverTheTime() {
+        WeatherCell cell = createCell(0);
+        for (long time = 0; time < 50 * (long) MEAN_DURATION; time += 333) {
+            long slot = cell.getSlot(time);
+            assertTrue(cell.getSlotStart(slot) <= time);
+            assertTrue(time < cell.getSlotStart(slot + 1));
+        }
+    }
+
+    @Test
+    public void forecastMatchesFollowingSlots() {
+        WeatherCell cell = createCell(3 * (long) MEAN_DURATION);
+        ConditionAndDuration[] forecast = cell.getForecast(10);
+        for (int i = 0; i < forecast.length; i++) {
+            long slotStart = cell.getSlotStart(cell.getSlot(3 * (long) MEAN_DURATION) + 1 + i);
+            WeatherCell later = createCell(slotStart);
+            assertEquals(later.getCondition().toString(), forecast[i].toString());
+        }
+    }
+
+    private static WeatherCell createCell(long time) {
+        MarkovChainWeatherGenerator generator = new MarkovChainWeatherGenerator(SEED, MEAN_DURATION, CHECKPOINT_INTERVAL);
+        return new WeatherCell(0, 0, generator, MEAN_DURATION, 0.5f, WeatherCell.UNKNOWN_ELEVATION, time);
+    }
+}
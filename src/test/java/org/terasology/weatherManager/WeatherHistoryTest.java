@@ -0,0 +1,36 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.weatherManager.weather.WeatherHistory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WeatherHistoryTest {
+
+    @Test
+    public void findsConditionAtTime() {
+        WeatherHistory history = new WeatherHistory(4);
+        for (int i = 0; i < 6; i++) {
+            history.add(i * 100L, i);
+        }
+
+        // the first two entries have been overwritten
+        assertEquals(-1, history.indexAt(199));
+        assertEquals(2, history.getPacked(history.indexAt(200)));
+        assertEquals(3, history.getPacked(history.indexAt(399)));
+        assertEquals(5, history.getPacked(history.indexAt(10000)));
+    }
+
+    @Test
+    public void clearsWhenTimeIsSetBack() {
+        WeatherHistory history = new WeatherHistory(4);
+        history.add(1000, 1);
+        history.add(2000, 2);
+        history.add(500, 3);
+
+        assertEquals(1, history.size());
+        assertEquals(500, history.getStartTime(0));
+    }
+}
@@ -0,0 +1,104 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.simulation;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.delay.DelayManager;
+import org.terasology.engine.logic.delay.DelayedActionTriggeredEvent;
+import org.terasology.engine.logic.delay.PeriodicActionTriggeredEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link DelayManager} driven by an explicit clock instead of the engine's game time.
+ */
+class FakeDelayManager implements DelayManager {
+
+    private final List<Action> delayedActions = new ArrayList<>();
+    private final List<Action> periodicActions = new ArrayList<>();
+    private long time;
+
+    @Override
+    public void addDelayedAction(EntityRef entity, String actionId, long delay) {
+        delayedActions.add(new Action(entity, actionId, time + delay, 0));
+    }
+
+    @Override
+    public void addPeriodicAction(EntityRef entity, String actionId, long initialDelay, long period) {
+        periodicActions.add(new Action(entity, actionId, time + initialDelay, period));
+    }
+
+    @Override
+    public void cancelDelayedAction(EntityRef entity, String actionId) {
+        delayedActions.removeIf(action -> action.matches(entity, actionId));
+    }
+
+    @Override
+    public void cancelPeriodicAction(EntityRef entity, String actionId) {
+        periodicActions.removeIf(action -> action.matches(entity, actionId));
+    }
+
+    @Override
+    public boolean hasDelayedAction(EntityRef entity, String actionId) {
+        return delayedActions.stream().anyMatch(action -> action.matches(entity, actionId));
+    }
+
+    @Override
+    public boolean hasPeriodicAction(EntityRef entity, String actionId) {
+        return periodicActions.stream().anyMatch(action -> action.matches(entity, actionId));
+    }
+
+    /**
+     * Advances the clock and triggers all actions that are due, in the order of their trigger time.
+     *
+     * @param newTime the new time in milliseconds
+     */
+    void advanceTo(long newTime) {
+        while (true) {
+            Action next = null;
+            for (Action action : delayedActions) {
+                if (action.triggerTime <= newTime && (next == null || action.triggerTime < next.triggerTime)) {
+                    next = action;
+                }
+            }
+            for (Action action : periodicActions) {
+                if (action.triggerTime <= newTime && (next == null || action.triggerTime < next.triggerTime)) {
+                    next = action;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+
+            time = next.triggerTime;
+            if (next.period > 0) {
+                next.triggerTime += next.period;
+                next.entity.send(new PeriodicActionTriggeredEvent(next.actionId));
+            } else {
+                delayedActions.remove(next);
+                next.entity.send(new DelayedActionTriggeredEvent(next.actionId));
+            }
+        }
+        time = newTime;
+    }
+
+    private static final class Action {
+        final EntityRef entity;
+        final String actionId;
+        final long period;
+        long triggerTime;
+
+        Action(EntityRef entity, String actionId, long triggerTime, long period) {
+            this.entity = entity;
+            this.actionId = actionId;
+            this.triggerTime = triggerTime;
+            this.period = period;
+        }
+
+        boolean matches(EntityRef otherEntity, String otherActionId) {
+            return entity == otherEntity && Objects.equals(actionId, otherActionId);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.simulation;
+
+import org.joml.Vector3f;
+import org.joml.Vector3ic;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.delay.DelayManager;
+import org.terasology.engine.logic.delay.DelayedActionTriggeredEvent;
+import org.terasology.engine.logic.delay.PeriodicActionTriggeredEvent;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.network.Client;
+import org.terasology.engine.network.NetworkSystem;
+import org.terasology.engine.registry.CoreRegistry;
+import org.terasology.engine.registry.InjectionHelper;
+import org.terasology.engine.world.WorldProvider;
+import org.terasology.engine.world.block.Block;
+import org.terasology.engine.world.block.BlockManager;
+import org.terasology.engine.world.block.BlockRegion;
+import org.terasology.engine.world.block.BlockRegionc;
+import org.terasology.engine.world.chunks.Chunks;
+import org.terasology.engine.world.time.WorldTime;
+import org.terasology.engine.world.time.WorldTimeEvent;
+import org.terasology.gestalt.entitysystem.event.Event;
+import org.terasology.weatherManager.clouds.CloudUpdateManager;
+import org.terasology.weatherManager.events.WeatherChangedEvent;
+import org.terasology.weatherManager.metrics.WeatherMetricsSystem;
+import org.terasology.weatherManager.systems.BlockPlacingWeatherSystem;
+import org.terasology.weatherManager.systems.RegionalWeatherSystem;
+import org.terasology.weatherManager.systems.WeatherManagerSystem;
+import org.terasology.weatherManager.weather.DownfallCondition;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Runs {@link WeatherManagerSystem}, {@link CloudUpdateManager} and {@link BlockPlacingWeatherSystem} without a client or
+ * engine, against an in-memory flat world, a {@link FakeDelayManager} and a number of fake players.
+ * <p>
+ * Time advances in fixed ticks as fast as possible, so months of game time can be simulated in seconds.
+ */
+public class HeadlessWeatherSimulation {
+
+    /**
+     * World time in milliseconds that passes per tick.
+     */
+    public static final long TICK_LENGTH = 1000;
+
+    private static final int GROUND_HEIGHT = 64;
+    private static final long WORLD_TIME_EVENT_INTERVAL = WorldTime.DAY_LENGTH / 100;
+
+    private final Map<Long, Block> changedBlocks = new HashMap<>();
+    private final Map<DownfallCondition.DownfallType, Long> timePerType = new EnumMap<>(DownfallCondition.DownfallType.class);
+    private final FakeDelayManager delayManager = new FakeDelayManager();
+    private final List<Vector3f> playerPositions = new ArrayList<>();
+
+    private final WeatherManagerSystem weatherManagerSystem = new WeatherManagerSystem();
+    private final CloudUpdateManager cloudUpdateManager = new CloudUpdateManager();
+    private final BlockPlacingWeatherSystem blockPlacingWeatherSystem = new BlockPlacingWeatherSystem();
+    private final WeatherMetricsSystem metricsSystem = new WeatherMetricsSystem();
+    private final RegionalWeatherSystem regionalWeatherSystem = new RegionalWeatherSystem();
+
+    private EntityRef weatherEntity;
+    private Block air;
+    private Block ground;
+
+    private long time;
+    private long blockWrites;
+    private long weatherChanges;
+    private long eventsDispatched;
+
+    /**
+     * @param playerCount the number of fake players, spread out so that they do not share chunks
+     */
+    public HeadlessWeatherSimulation(int playerCount) {
+        for (int i = 0; i < playerCount; i++) {
+            playerPositions.add(new Vector3f(i * 4 * Chunks.SIZE_X, GROUND_HEIGHT + 1, 0));
+        }
+        setup();
+    }
+
+    private void setup() {
+        air = new Block();
+        air.setPenetrable(true);
+        ground = new Block();
+        ground.setAttachmentAllowed(true);
+
+        BlockManager blockManager = mock(BlockManager.class, withSettings().stubOnly());
+        when(blockManager.getBlock("engine:air")).thenReturn(air);
+        when(blockManager.getBlock(BlockManager.AIR_ID)).thenReturn(air);
+        when(blockManager.getBlock("WeatherManager:snow")).thenReturn(new Block());
+        when(blockManager.getBlock("CoreAssets:water")).thenReturn(new Block());
+        when(blockManager.getBlock("WeatherManager:Cloud")).thenReturn(new Block());
+
+        WorldProvider worldProvider = mock(WorldProvider.class, withSettings().stubOnly());
+        when(worldProvider.getSeed()).thenReturn("headless");
+        when(worldProvider.getBlock(anyInt(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> getBlock(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(worldProvider.getSunlight(anyInt(), anyInt(), anyInt())).thenReturn(Chunks.MAX_SUNLIGHT);
+        when(worldProvider.setBlock(any(Vector3ic.class), any(Block.class)))
+                .thenAnswer(invocation -> setBlock(invocation.getArgument(0), invocation.getArgument(1)));
+        when(worldProvider.setBlocks(any())).thenAnswer(invocation -> setBlocks(invocation.getArgument(0)));
+        when(worldProvider.getRelevantRegions()).thenAnswer(invocation -> getRelevantRegions());
+
+        WorldTime worldTime = mock(WorldTime.class, withSettings().stubOnly());
+        when(worldTime.getMilliseconds()).thenAnswer(invocation -> time);
+
+        weatherEntity = mock(EntityRef.class, withSettings().stubOnly());
+        when(weatherEntity.send(any())).thenAnswer(invocation -> dispatch(invocation.getArgument(0)));
+
+        EntityManager entityManager = mock(EntityManager.class, withSettings().stubOnly());
+        when(entityManager.getEntitiesWith(any())).thenReturn(Collections.emptyList());
+        when(entityManager.create()).thenReturn(weatherEntity);
+
+        List<Client> players = new ArrayList<>();
+        for (Vector3f position : playerPositions) {
+            LocationComponent location = new LocationComponent();
+            location.setWorldPosition(position);
+            EntityRef character = mock(EntityRef.class, withSettings().stubOnly());
+            when(character.getComponent(LocationComponent.class)).thenReturn(location);
+            Client client = mock(Client.class, withSettings().stubOnly());
+            when(client.getEntity()).thenReturn(character);
+            players.add(client);
+        }
+        NetworkSystem networkSystem = mock(NetworkSystem.class, withSettings().stubOnly());
+        when(networkSystem.getPlayers()).thenReturn(players);
+
+        Context context = new ContextImpl();
+        context.put(Context.class, context);
+        context.put(BlockManager.class, blockManager);
+        context.put(WorldProvider.class, worldProvider);
+        context.put(WorldTime.class, worldTime);
+        context.put(EntityManager.class, entityManager);
+        context.put(DelayManager.class, delayManager);
+        context.put(NetworkSystem.class, networkSystem);
+        context.put(WeatherManagerSystem.class, weatherManagerSystem);
+        context.put(CloudUpdateManager.class, cloudUpdateManager);
+        context.put(WeatherMetricsSystem.class, metricsSystem);
+        context.put(RegionalWeatherSystem.class, regionalWeatherSystem);
+        CoreRegistry.setContext(context);
+
+        InjectionHelper.inject(regionalWeatherSystem, context);
+        InjectionHelper.inject(weatherManagerSystem, context);
+        InjectionHelper.inject(cloudUpdateManager, context);
+        InjectionHelper.inject(blockPlacingWeatherSystem, context);
+
+        cloudUpdateManager.preBegin();
+        regionalWeatherSystem.postBegin();
+        weatherManagerSystem.postBegin();
+        blockPlacingWeatherSystem.postBegin();
+    }
+
+    /**
+     * Runs the simulation for the given amount of world time.
+     *
+     * @param duration world time to simulate in milliseconds
+     * @return the measurements of this run
+     */
+    public Report run(long duration) {
+        long ticks = duration / TICK_LENGTH;
+        long writesBefore = blockWrites;
+        long changesBefore = weatherChanges;
+        long eventsBefore = eventsDispatched;
+        timePerType.clear();
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+
+        for (long tick = 0; tick < ticks; tick++) {
+            long previous = time;
+            time += TICK_LENGTH;
+
+            delayManager.advanceTo(time);
+            if (time / WORLD_TIME_EVENT_INTERVAL != previous / WORLD_TIME_EVENT_INTERVAL) {
+                cloudUpdateManager.onTimeEvent(new WorldTimeEvent(time), weatherEntity);
+            }
+            // the weather that is presented to the first player
+            Vector3f position = playerPositions.get(0);
+            DownfallCondition.DownfallType type = weatherManagerSystem.getCondition((int) position.x, (int) position.z).downfallType;
+            timePerType.merge(type, TICK_LENGTH, Long::sum);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Report(ticks, seconds, blockWrites - writesBefore, weatherChanges - changesBefore,
+                eventsDispatched - eventsBefore, allocated, new EnumMap<>(timePerType));
+    }
+
+    private Event dispatch(Event event) {
+        eventsDispatched++;
+        if (event instanceof DelayedActionTriggeredEvent) {
+            weatherManagerSystem.onTimeEvent((DelayedActionTriggeredEvent) event, weatherEntity);
+        } else if (event instanceof PeriodicActionTriggeredEvent) {
+            blockPlacingWeatherSystem.onPlaceEvent((PeriodicActionTriggeredEvent) event, weatherEntity);
+        } else if (event instanceof WeatherChangedEvent) {
+            weatherChanges++;
+        }
+        return event;
+    }
+
+    private Block getBlock(int x, int y, int z) {
+        Block block = changedBlocks.get(key(x, y, z));
+        if (block != null) {
+            return block;
+        }
+        return y < GROUND_HEIGHT ? ground : air;
+    }
+
+    private Block setBlock(Vector3ic pos, Block block) {
+        blockWrites++;
+        Block old = getBlock(pos.x(), pos.y(), pos.z());
+        changedBlocks.put(key(pos.x(), pos.y(), pos.z()), block);
+        return old;
+    }
+
+    private Map<Vector3ic, Block> setBlocks(Map<? extends Vector3ic, Block> blocks) {
+        Map<Vector3ic, Block> old = new HashMap<>();
+        for (Map.Entry<? extends Vector3ic, Block> entry : blocks.entrySet()) {
+            old.put(entry.getKey(), setBlock(entry.getKey(), entry.getValue()));
+        }
+        return old;
+    }
+
+    private List<BlockRegionc> getRelevantRegions() {
+        // one chunk per player, at the height of the cloud layer
+        List<BlockRegionc> regions = new ArrayList<>();
+        int minY = Math.floorDiv(cloudUpdateManager.getCloudHeight(), Chunks.SIZE_Y) * Chunks.SIZE_Y;
+        for (Vector3f position : playerPositions) {
+            int minX = Math.floorDiv((int) position.x, Chunks.SIZE_X) * Chunks.SIZE_X;
+            int minZ = Math.floorDiv((int) position.z, Chunks.SIZE_Z) * Chunks.SIZE_Z;
+            regions.add(new BlockRegion(minX, minY, minZ,
+                    minX + Chunks.SIZE_X - 1, minY + Chunks.SIZE_Y - 1, minZ + Chunks.SIZE_Z - 1));
+        }
+        return regions;
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFF) << 42) | ((long) (y & 0xFFFFF) << 22) | (z & 0x3FFFFF);
+    }
+
+    /**
+     * Measurements of a simulation run.
+     */
+    public static final class Report {
+        public final long ticks;
+        public final double seconds;
+        public final long blockWrites;
+        public final long weatherChanges;
+        public final long eventsDispatched;
+        public final long allocatedBytes;
+        public final Map<DownfallCondition.DownfallType, Long> timePerType;
+
+        Report(long ticks, double seconds, long blockWrites, long weatherChanges, long eventsDispatched, long allocatedBytes,
+               Map<DownfallCondition.DownfallType, Long> timePerType) {
+            this.ticks = ticks;
+            this.seconds = seconds;
+            this.blockWrites = blockWrites;
+            this.weatherChanges = weatherChanges;
+            this.eventsDispatched = eventsDispatched;
+            this.allocatedBytes = allocatedBytes;
+            this.timePerType = timePerType;
+        }
+
+        public double ticksPerSecond() {
+            return ticks / seconds;
+        }
+
+        public double blockWritesPerTick() {
+            return blockWrites / (double) ticks;
+        }
+
+        /**
+         * @return allocated bytes per second of real time, including the overhead of the fake world
+         */
+        public double allocationRate() {
+            return allocatedBytes / seconds;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append(String.format("%d ticks in %.2fs (%.0f ticks/s)%n", ticks, seconds, ticksPerSecond()));
+            builder.append(String.format("%.3f block writes per tick%n", blockWritesPerTick()));
+            builder.append(String.format("%d weather changes, %d events dispatched%n", weatherChanges, eventsDispatched));
+            builder.append(String.format("%.1f MB/s allocated%n", allocationRate() / (1024 * 1024)));
+            long total = timePerType.values().stream().mapToLong(Long::longValue).sum();
+            for (Map.Entry<DownfallCondition.DownfallType, Long> entry : timePerType.entrySet()) {
+                builder.append(String.format("%s: %.1f%%%n", entry.getKey(), 100.0 * entry.getValue() / total));
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.weatherManager.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.world.time.WorldTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HeadlessWeatherSimulationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(HeadlessWeatherSimulationTest.class);
+
+    /**
+     * Number of in-game days to simulate, can be raised for long-run measurements.
+     */
+    private static final int DAYS = Integer.getInteger("weatherSimulation.days", 30);
+
+    @Test
+    public void simulateMonth() {
+        HeadlessWeatherSimulation simulation = new HeadlessWeatherSimulation(4);
+        HeadlessWeatherSimulation.Report report = simulation.run(DAYS * WorldTime.DAY_LENGTH);
+
+        logger.info("{}", report);
+
+        assertTrue(report.ticks > 0, "The simulation should have run");
+        assertTrue(report.eventsDispatched > 0, "The weather systems should have dispatched events");
+        assertTrue(report.weatherChanges > 1, "The weather should change over time");
+        assertTrue(report.timePerType.size() > 1, "More than one type of weather should occur");
+    }
+}